@@ -0,0 +1,114 @@
+package bench;
+
+import src.Database;
+import src.DatabaseConfig;
+import src.StorageProfile;
+import src.TaskStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.*;
+import java.sql.*;
+
+// Seeded SQLite files for the benchmarks. Each size is generated once into target/bench-db
+// and every trial works on a fresh temporary copy, so the shipped databases/database.db is
+// never opened.
+public class BenchmarkDatabases {
+    private static final Path SEED_DIR = Paths.get("target", "bench-db");
+    private static final int BATCH_SIZE = 10_000;
+    private static final String[] DEPARTMENTS = { "Engineering", "Sales", "Finance", "Support", "Marketing" };
+
+    // Employees per seeded database: one for every 20 tasks, at least 10
+    public static int userCount(int taskRows) {
+        return Math.max(10, taskRows / 20);
+    }
+
+    public static String username(int index) {
+        return "user" + index;
+    }
+
+    // A fresh temporary copy of the seed database with the given number of task rows,
+    // already opened through Database with the given storage profile
+    public static Path open(int taskRows, StorageProfile profile) throws IOException, SQLException {
+        Path seed = seed(taskRows);
+        Path copy = Files.createTempFile("ems-bench-", ".db");
+        Files.copy(seed, copy, StandardCopyOption.REPLACE_EXISTING);
+        Database.configure(Database.getConfig().withPath(copy.toString()).withProfile(profile));
+        Database.createTables();
+        return copy;
+    }
+
+    public static void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Paths.get(file + "-wal"));
+        Files.deleteIfExists(Paths.get(file + "-shm"));
+    }
+
+    // Database prints a line for every write; that would dominate the measurements
+    public static void silenceStdout() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private static synchronized Path seed(int taskRows) throws IOException, SQLException {
+        Files.createDirectories(SEED_DIR);
+        Path seed = SEED_DIR.resolve("seed-" + taskRows + ".db");
+        if (Files.exists(seed)) {
+            return seed;
+        }
+
+        Path partial = SEED_DIR.resolve("seed-" + taskRows + ".db.partial");
+        Files.deleteIfExists(partial);
+        Database.configure(Database.getConfig().withPath(partial.toString()).withProfile(StorageProfile.THROUGHPUT));
+        Database.createTables();
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + partial)) {
+            connection.setAutoCommit(false);
+            int users = userCount(taskRows);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO user (username, password, role, first_name, last_name, department, job_title, email) "
+                            + "VALUES (?, ?, 'Employee', ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < users; i++) {
+                    statement.setString(1, username(i));
+                    statement.setString(2, "password");
+                    statement.setString(3, "First" + i);
+                    statement.setString(4, "Last" + i);
+                    statement.setString(5, DEPARTMENTS[i % DEPARTMENTS.length]);
+                    statement.setString(6, "Engineer");
+                    statement.setString(7, username(i) + "@example.com");
+                    statement.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO task (title, description, status, assigned_to_id, manager_id, feedback) "
+                            + "VALUES (?, ?, ?, (SELECT user_id FROM user WHERE username = ?), "
+                            + "(SELECT user_id FROM user WHERE username = ?), ?)")) {
+                for (int i = 0; i < taskRows; i++) {
+                    statement.setString(1, "Task " + i);
+                    statement.setString(2, "Description for benchmark task number " + i);
+                    statement.setInt(3, i % TaskStatus.values().length);
+                    statement.setString(4, username(i % users));
+                    statement.setString(5, username((i + 1) % users));
+                    statement.setString(6, i % 3 == 0 ? "Looks good" : null);
+                    statement.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        }
+        // Closing the last connection checkpoints the WAL back into the file before it is moved
+        Database.getPool().close();
+
+        Files.move(partial, seed, StandardCopyOption.ATOMIC_MOVE);
+        return seed;
+    }
+}
@@ -0,0 +1,90 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import src.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of showing one employee dashboard section (a TaskListTableModel in a JTable with a
+// TaskActionsCell, laid out as EmployeeGUI does) at 100, 10k and 100k tasks: loading every
+// task, one task changing, and laying out and painting the visible rows. Only the load should
+// grow with the row count; the table never builds components for rows that are off screen.
+//
+// Runs headless on the benchmark thread: nothing is shown, so there is no EDT to hand off to.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DashboardLayoutBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int rows;
+
+    private List<Task> tasks;
+    private TaskListTableModel model;
+    private JScrollPane scrollPane;
+    private Graphics2D graphics;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabases.silenceStdout();
+        tasks = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Task task = new Task("Task " + i, "Description for benchmark task number " + i, TaskStatus.ACCEPTED,
+                    "employee", "manager" + (i % 40), null);
+            task.setTaskId(i + 1);
+            tasks.add(task);
+        }
+
+        model = new TaskListTableModel("employee", TaskListTableModel.Column.TITLE,
+                TaskListTableModel.Column.ASSIGNED_BY, TaskListTableModel.Column.ACTIONS);
+        JTable table = new JTable(model);
+        TaskActionsCell.of("Feedback", task -> { }, "Complete", task -> { }).install(table, model.actionColumn());
+        table.setPreferredScrollableViewportSize(new Dimension(500, table.getRowHeight() * 6));
+        scrollPane = new JScrollPane(table);
+        scrollPane.setSize(scrollPane.getPreferredSize());
+        model.setTasks(tasks);
+        scrollPane.validate();
+
+        BufferedImage image = new BufferedImage(scrollPane.getWidth(), scrollPane.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    // A full refresh, as when the dashboard first loads
+    @Benchmark
+    public int setTasks() {
+        model.setTasks(tasks);
+        scrollPane.validate();
+        return model.getRowCount();
+    }
+
+    // One task edited, as when a change event or an edit dialog updates a row
+    @Benchmark
+    public int taskChanged() {
+        next = (next + 7919) % rows;
+        model.taskChanged(tasks.get(next));
+        return next;
+    }
+
+    // Laying out and painting what is on screen after a change
+    @Benchmark
+    public void layoutAndPaint() {
+        scrollPane.invalidate();
+        scrollPane.validate();
+        scrollPane.paint(graphics);
+    }
+}
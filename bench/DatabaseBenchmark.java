@@ -0,0 +1,110 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import src.Database;
+import src.StorageProfile;
+import src.Task;
+import src.TaskStatus;
+import src.UpdateResult;
+import src.User;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Every public Database operation against seeded databases of 1k, 100k and 1M tasks, under
+// each StorageProfile.
+// Throughput and SampleTime (latency percentiles) are both reported; run through
+// BenchmarkMain to get allocation rates from the GC profiler as well.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    // StorageProfile applied to the pool, see database.properties
+    @Param({ "durable", "balanced", "throughput" })
+    public String profile;
+
+    private Path databaseFile;
+    private int users;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        databaseFile = BenchmarkDatabases.open(rows, StorageProfile.fromName(profile));
+        users = BenchmarkDatabases.userCount(rows);
+        BenchmarkDatabases.silenceStdout();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Database.getPool().close();
+        BenchmarkDatabases.delete(databaseFile);
+    }
+
+    private String randomUsername() {
+        return BenchmarkDatabases.username(ThreadLocalRandom.current().nextInt(users));
+    }
+
+    private int randomTaskId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    @Benchmark
+    public boolean addUser() {
+        String username = "bench" + sequence.incrementAndGet() + "_" + System.nanoTime();
+        return Database.addUser(username, "password", "Employee", "Bench", "User", "Engineering", "Engineer",
+                username + "@example.com");
+    }
+
+    @Benchmark
+    public User getUser() {
+        return Database.getUser(randomUsername(), "password");
+    }
+
+    @Benchmark
+    public boolean createTaskDB() {
+        return Database.createTaskDB(new Task("Benchmark task", "Created by DatabaseBenchmark", TaskStatus.ASSIGNED,
+                randomUsername(), randomUsername(), null));
+    }
+
+    // Seeded task n has status (n - 1) % 4 (see BenchmarkDatabases), so the odd ids are the
+    // tasks that start out Assigned or Rejected
+    private int randomAssignedOrRejectedTaskId() {
+        return 1 + 2 * ThreadLocalRandom.current().nextInt((rows + 1) / 2);
+    }
+
+    @Benchmark
+    public int updateTaskStatus() {
+        // Assigned <-> Rejected is the one cycle in TaskStatus, so tasks that start in it never run
+        // out of moves; Accepted and Completed ones would only measure refused updates
+        int taskId = randomAssignedOrRejectedTaskId();
+        if (Database.updateTaskStatus(taskId, TaskStatus.REJECTED) == UpdateResult.CONFLICT) {
+            Database.updateTaskStatus(taskId, TaskStatus.ASSIGNED);
+        }
+        return taskId;
+    }
+
+    @Benchmark
+    public List<Task> getEmployeeTasks() {
+        return Database.getEmployeeTasks(randomUsername());
+    }
+
+    @Benchmark
+    public Object[][] getAllTasks() {
+        return Database.getAllTasks();
+    }
+
+    @Benchmark
+    public Object[][] getAllEmployees() {
+        return Database.getAllEmployees();
+    }
+}
@@ -0,0 +1,67 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import src.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Type-ahead lookups in the employee picker index (EmployeeIndex) for organisations of 1k and
+// 100k employees: a short prefix, a "first last" prefix, a typo only the trigrams catch, and
+// a query nothing matches. Each should stay well under a millisecond.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeIndexBenchmark {
+    private static final String[] FIRST_NAMES = { "John", "Jane", "Alice", "Bob", "Carol", "David", "Eve",
+            "Frank", "Grace", "Heidi", "Ivan", "Judy", "Olivia", "Peggy", "Victor", "Walter", "Yolanda", "Zoe",
+            "Mohammed", "Wei", "Priya", "Sofia", "Liam", "Noah" };
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Lopez", "Wilson", "Anderson", "Taylor", "Moore", "Lee",
+            "Thompson", "White", "Harris", "Clark", "Lewis", "Okafor", "Nakamura", "Kowalski", "Schmidt" };
+
+    @Param({ "1000", "100000" })
+    public int employees;
+
+    private EmployeeIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabases.silenceStdout();
+        UserRepository users = new InMemoryUserRepository();
+        Random random = new Random(42);
+        for (int i = 0; i < employees; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = (first.charAt(0) + last).toLowerCase() + i;
+            users.addUser(username, "password", "Employee", first, last, "Engineering", "Engineer",
+                    (first + "." + last + i).toLowerCase() + "@example.com");
+        }
+        index = new EmployeeIndex(users);
+        index.reload();
+    }
+
+    @Benchmark
+    public List<EmployeeIndex.Entry> prefix() {
+        return index.search("jo", EmployeeIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<EmployeeIndex.Entry> fullName() {
+        return index.search("john sm", EmployeeIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<EmployeeIndex.Entry> typo() {
+        return index.search("kowalsky", EmployeeIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<EmployeeIndex.Entry> noMatch() {
+        return index.search("zzzq", EmployeeIndex.DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,324 @@
+package bench;
+
+import src.Database;
+import src.StorageProfile;
+import src.QueryMetrics;
+import src.TaskStatus;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless load test: generates an organisation into a scratch database and has every
+// thread play one employee who logs in, reads their tasks, accepts/rejects/completes tasks
+// and (as a manager) deletes them, all at once. Reports throughput, p50/p99 latency per
+// operation and how often SQLite gave up with SQLITE_BUSY.
+//
+// java -cp target/benchmarks.jar bench.LoadSimulator [--threads 200] [--duration 30] [--warmup 5]
+//     [--departments 8] [--teams 4] [--team-size 8] [--tasks 20] [--mix login=20,read=50,update=25,delete=5]
+//     [--think-ms 0] [--seed 42] [--db path] [--metrics file] [--profile durable|balanced|throughput]
+//     [--write-queue true]   send updates and deletes through the group-commit writer
+public class LoadSimulator {
+    // Moves the task's current status does not allow are refused by the UPDATE itself; they
+    // still cost a round trip, so they count as operations like any other click
+    private static final TaskStatus[] NEW_STATUSES = { TaskStatus.ACCEPTED, TaskStatus.REJECTED,
+            TaskStatus.COMPLETED, TaskStatus.ASSIGNED };
+
+    enum Operation {
+        LOGIN, READ, UPDATE, DELETE
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "200"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int thinkMillis = Integer.parseInt(options.getOrDefault("think-ms", "0"));
+        boolean writeQueue = Boolean.parseBoolean(options.getOrDefault("write-queue", "false"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int[] mix = parseMix(options.getOrDefault("mix", "login=20,read=50,update=25,delete=5"));
+        OrgGenerator generator = new OrgGenerator(
+                Integer.parseInt(options.getOrDefault("departments", "8")),
+                Integer.parseInt(options.getOrDefault("teams", "4")),
+                Integer.parseInt(options.getOrDefault("team-size", "8")),
+                Integer.parseInt(options.getOrDefault("tasks", "20")), seed);
+
+        boolean keepDatabase = options.containsKey("db");
+        Path databaseFile = keepDatabase ? Paths.get(options.get("db")) : Files.createTempFile("ems-load-", ".db");
+        BenchmarkDatabases.delete(databaseFile);
+        StorageProfile profile = options.containsKey("profile") ? StorageProfile.fromName(options.get("profile"))
+                : Database.getConfig().getProfile();
+        Database.configure(Database.getConfig().withPath(databaseFile.toString()).withProfile(profile));
+        Database.createTables();
+        OrgGenerator.Org org = generator.generate("jdbc:sqlite:" + databaseFile);
+        List<OrgGenerator.Person> managers = org.managers();
+        System.out.printf("Generated %d users and %d tasks (%d managers) in %s%n", org.people.size(), org.taskCount,
+                managers.size(), databaseFile);
+
+        // Database logs every write to stdout and every failure to stderr; keep the report readable
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long busyBefore = 0;
+        List<Worker> workers = new ArrayList<>();
+        ExecutorService executor = createExecutor(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                Worker worker = new Worker(org.people.get(i % org.people.size()), managers, mix, thinkMillis,
+                        writeQueue, measureStart, end, seed + i);
+                workers.add(worker);
+                executor.execute(worker);
+            }
+            long warmupLeft = measureStart - System.nanoTime();
+            if (warmupLeft > 0) {
+                TimeUnit.NANOSECONDS.sleep(warmupLeft);
+            }
+            busyBefore = Database.getBusyErrorCount();
+            executor.shutdown();
+            executor.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+        long busyErrors = Database.getBusyErrorCount() - busyBefore;
+
+        report(workers, threads, durationSeconds, busyErrors);
+        System.out.println("Pool: " + Database.getPool());
+        if (writeQueue) {
+            System.out.println("Writer: " + Database.getWriter());
+        }
+        if (options.containsKey("metrics")) {
+            String file = QueryMetrics.getInstance().dump(options.get("metrics"));
+            System.out.println("Per-operation metrics written to " + file);
+        }
+        Database.getPool().close();
+        if (!keepDatabase) {
+            BenchmarkDatabases.delete(databaseFile);
+        }
+    }
+
+    // One virtual thread per simulated employee when the JVM has them (21+), otherwise one
+    // platform thread each
+    private static ExecutorService createExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads unavailable; using " + threads + " platform threads");
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "load-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private static void report(List<Worker> workers, int threads, int durationSeconds, long busyErrors) {
+        long totalOps = 0;
+        long totalWrites = 0;
+        System.out.printf("%n%d threads, %d s measured, %s%n", threads, durationSeconds, Database.getConfig());
+        System.out.printf("%-8s %10s %10s %10s %10s %10s%n", "op", "count", "ops/s", "p50 ms", "p99 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            LatencyLog merged = new LatencyLog();
+            for (Worker worker : workers) {
+                merged.addAll(worker.latencies[operation.ordinal()]);
+            }
+            long[] sorted = merged.sorted();
+            totalOps += sorted.length;
+            if (operation == Operation.UPDATE || operation == Operation.DELETE) {
+                totalWrites += sorted.length;
+            }
+            if (sorted.length == 0) {
+                System.out.printf("%-8s %10d%n", operation.name().toLowerCase(), 0);
+                continue;
+            }
+            System.out.printf("%-8s %10d %10.1f %10.3f %10.3f %10.3f%n", operation.name().toLowerCase(),
+                    sorted.length, (double) sorted.length / durationSeconds, millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+        }
+        System.out.printf("%-8s %10d %10.1f%n", "total", totalOps, (double) totalOps / durationSeconds);
+        System.out.printf("SQLITE_BUSY: %d (%.3f%% of writes, %.3f%% of all operations)%n", busyErrors,
+                totalWrites == 0 ? 0.0 : 100.0 * busyErrors / totalWrites,
+                totalOps == 0 ? 0.0 : 100.0 * busyErrors / totalOps);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    // "login=20,read=50,update=25,delete=5" -> weights indexed by Operation
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            weights[Operation.valueOf(pair[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(pair[1].trim());
+        }
+        if (Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("Operation mix has no weight: " + mix);
+        }
+        return weights;
+    }
+
+    // One simulated employee session
+    private static class Worker implements Runnable {
+        final LatencyLog[] latencies = new LatencyLog[Operation.values().length];
+        private final OrgGenerator.Person person;
+        private final List<OrgGenerator.Person> managers;
+        private final int[] mix;
+        private final int totalWeight;
+        private final int thinkMillis;
+        private final boolean writeQueue;
+        private final long measureStart;
+        private final long end;
+        private final Random random;
+
+        Worker(OrgGenerator.Person person, List<OrgGenerator.Person> managers, int[] mix, int thinkMillis,
+                boolean writeQueue, long measureStart, long end, long seed) {
+            this.person = person;
+            this.managers = managers;
+            this.mix = mix;
+            this.totalWeight = Arrays.stream(mix).sum();
+            this.thinkMillis = thinkMillis;
+            this.writeQueue = writeQueue;
+            this.measureStart = measureStart;
+            this.end = end;
+            this.random = new Random(seed);
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyLog();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < end) {
+                    Operation operation = nextOperation();
+                    long started = System.nanoTime();
+                    boolean performed = perform(operation);
+                    long finished = System.nanoTime();
+                    if (performed && started >= measureStart && finished <= end) {
+                        latencies[operation.ordinal()].add(finished - started);
+                    }
+                    if (thinkMillis > 0) {
+                        Thread.sleep(thinkMillis);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Operation nextOperation() {
+            int pick = random.nextInt(totalWeight);
+            for (Operation operation : Operation.values()) {
+                pick -= mix[operation.ordinal()];
+                if (pick < 0) {
+                    return operation;
+                }
+            }
+            return Operation.READ;
+        }
+
+        // False when there was nothing to do (no task to update or delete), so the no-op is
+        // not counted as a completed operation
+        private boolean perform(Operation operation) {
+            switch (operation) {
+                case LOGIN:
+                    Database.getUser(person.username, OrgGenerator.PASSWORD);
+                    return true;
+                case READ:
+                    Database.getEmployeeTasks(person.username);
+                    return true;
+                case UPDATE:
+                    Integer taskId = randomTask(person.assignedTasks, false);
+                    if (taskId == null) {
+                        return false;
+                    }
+                    TaskStatus status = NEW_STATUSES[random.nextInt(NEW_STATUSES.length)];
+                    if (writeQueue) {
+                        Database.queueTaskStatus(taskId, status).join();
+                    } else {
+                        Database.updateTaskStatus(taskId, status);
+                    }
+                    return true;
+                case DELETE:
+                    // Deletes come from whoever manages the task; pick a manager at random
+                    OrgGenerator.Person manager = managers.get(random.nextInt(managers.size()));
+                    Integer deleted = randomTask(manager.managedTasks, true);
+                    if (deleted == null) {
+                        return false;
+                    }
+                    if (writeQueue) {
+                        Database.queueDeleteTask(deleted).join();
+                    } else {
+                        Database.deleteTask(deleted);
+                    }
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        // Several workers can share a person when there are more threads than people
+        private Integer randomTask(List<Integer> tasks, boolean remove) {
+            synchronized (tasks) {
+                if (tasks.isEmpty()) {
+                    return null;
+                }
+                int index = random.nextInt(tasks.size());
+                return remove ? tasks.remove(index) : tasks.get(index);
+            }
+        }
+    }
+
+    // Append-only list of latencies in nanoseconds, owned by one worker
+    private static class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencyLog other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package bench;
+
+import src.TaskStatus;
+
+import java.sql.*;
+import java.util.*;
+
+// Generates a realistic organisation for load tests: departments with a head, teams with a
+// lead who reports to the head, and employees who report to a lead. Tasks flow down the
+// graph (heads assign to leads, leads to their team), and task counts per person are skewed
+// so a few people are much busier than the rest, as in a real task board.
+public class OrgGenerator {
+    private static final String[] DEPARTMENTS = { "Engineering", "Sales", "Finance", "Support", "Marketing",
+            "Operations", "Legal", "Research" };
+    private static final TaskStatus[] STATUSES = { TaskStatus.ASSIGNED, TaskStatus.ASSIGNED, TaskStatus.ACCEPTED,
+            TaskStatus.ACCEPTED, TaskStatus.ACCEPTED, TaskStatus.REJECTED, TaskStatus.COMPLETED };
+    private static final int BATCH_SIZE = 10_000;
+
+    public static final String PASSWORD = "password";
+
+    private final int departments;
+    private final int teamsPerDepartment;
+    private final int teamSize;
+    private final int tasksPerEmployee;
+    private final Random random;
+
+    public OrgGenerator(int departments, int teamsPerDepartment, int teamSize, int tasksPerEmployee, long seed) {
+        this.departments = departments;
+        this.teamsPerDepartment = teamsPerDepartment;
+        this.teamSize = teamSize;
+        this.tasksPerEmployee = tasksPerEmployee;
+        this.random = new Random(seed);
+    }
+
+    // One generated person; manager is null for department heads
+    public static class Person {
+        public final String username;
+        public final String department;
+        public final String jobTitle;
+        public final String manager;
+        // Ids of tasks assigned to and managed by this person
+        public final List<Integer> assignedTasks = new ArrayList<>();
+        public final List<Integer> managedTasks = new ArrayList<>();
+
+        Person(String username, String department, String jobTitle, String manager) {
+            this.username = username;
+            this.department = department;
+            this.jobTitle = jobTitle;
+            this.manager = manager;
+        }
+    }
+
+    public static class Org {
+        public final List<Person> people = new ArrayList<>();
+        public int taskCount;
+
+        // Everyone who manages at least one task
+        public List<Person> managers() {
+            List<Person> managers = new ArrayList<>();
+            for (Person person : people) {
+                if (!person.managedTasks.isEmpty()) {
+                    managers.add(person);
+                }
+            }
+            return managers;
+        }
+    }
+
+    // Writes the organisation into an empty database whose tables already exist. Task ids
+    // are assigned in insertion order, so the file must not contain any tasks yet.
+    public Org generate(String url) throws SQLException {
+        Org org = buildGraph();
+        try (Connection connection = DriverManager.getConnection(url)) {
+            connection.setAutoCommit(false);
+            insertUsers(connection, org);
+            insertTasks(connection, org);
+            connection.commit();
+        }
+        return org;
+    }
+
+    private Org buildGraph() {
+        Org org = new Org();
+        int sequence = 0;
+        for (int d = 0; d < departments; d++) {
+            String department = DEPARTMENTS[d % DEPARTMENTS.length] + (d < DEPARTMENTS.length ? "" : " " + d);
+            Person head = new Person("head" + d, department, "Head of " + department, null);
+            org.people.add(head);
+            for (int t = 0; t < teamsPerDepartment; t++) {
+                Person lead = new Person("lead" + d + "_" + t, department, "Team Lead", head.username);
+                org.people.add(lead);
+                for (int e = 0; e < teamSize; e++) {
+                    org.people.add(new Person("emp" + sequence++, department, "Engineer", lead.username));
+                }
+            }
+        }
+        return org;
+    }
+
+    private void insertUsers(Connection connection, Org org) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO user (username, password, role, first_name, last_name, department, job_title, email) "
+                        + "VALUES (?, ?, 'Employee', ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (Person person : org.people) {
+                statement.setString(1, person.username);
+                statement.setString(2, PASSWORD);
+                statement.setString(3, "First " + person.username);
+                statement.setString(4, "Last " + person.username);
+                statement.setString(5, person.department);
+                statement.setString(6, person.jobTitle);
+                statement.setString(7, person.username + "@example.com");
+                statement.addBatch();
+                if (++pending % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void insertTasks(Connection connection, Org org) throws SQLException {
+        Map<String, Person> byUsername = new HashMap<>();
+        for (Person person : org.people) {
+            byUsername.put(person.username, person);
+        }
+
+        int taskId = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO task (title, description, status, assigned_to_id, manager_id, feedback) "
+                        + "VALUES (?, ?, ?, (SELECT user_id FROM user WHERE username = ?), "
+                        + "(SELECT user_id FROM user WHERE username = ?), ?)")) {
+            for (Person assignee : org.people) {
+                if (assignee.manager == null) {
+                    continue;
+                }
+                Person manager = byUsername.get(assignee.manager);
+                for (int i = 0, count = skewedTaskCount(); i < count; i++) {
+                    taskId++;
+                    TaskStatus status = STATUSES[random.nextInt(STATUSES.length)];
+                    statement.setString(1, "Task " + taskId + " for " + assignee.username);
+                    statement.setString(2, "Generated task " + taskId + " in " + assignee.department);
+                    statement.setInt(3, status.getCode());
+                    statement.setString(4, assignee.username);
+                    statement.setString(5, manager.username);
+                    statement.setString(6, status == TaskStatus.COMPLETED ? "Looks good" : null);
+                    statement.addBatch();
+                    assignee.assignedTasks.add(taskId);
+                    manager.managedTasks.add(taskId);
+                    if (taskId % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+            }
+            statement.executeBatch();
+        }
+        org.taskCount = taskId;
+    }
+
+    // Exponentially distributed around tasksPerEmployee: most people have a few tasks, some
+    // have several times the average
+    private int skewedTaskCount() {
+        return (int) Math.round(-Math.log(1 - random.nextDouble()) * tasksPerEmployee);
+    }
+}
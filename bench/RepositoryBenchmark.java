@@ -0,0 +1,105 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+import src.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The same user and task operations through the repository interfaces, on the SQLite engine
+// (balanced profile) and the in-memory engine, so the two can be compared side by side.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int rows;
+
+    @Param({ "sqlite", "memory" })
+    public String engine;
+
+    private Path databaseFile;
+    private int users;
+    private UserRepository userRepository;
+    private TaskRepository taskRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        users = BenchmarkDatabases.userCount(rows);
+        if ("memory".equals(engine)) {
+            userRepository = new InMemoryUserRepository();
+            taskRepository = new InMemoryTaskRepository(userRepository);
+            BenchmarkDatabases.silenceStdout();
+            seed();
+        } else {
+            databaseFile = BenchmarkDatabases.open(rows, StorageProfile.BALANCED);
+            userRepository = new SqliteUserRepository();
+            taskRepository = new SqliteTaskRepository();
+            BenchmarkDatabases.silenceStdout();
+        }
+    }
+
+    // Same users and tasks as the SQLite seed databases
+    private void seed() {
+        TaskStatus[] statuses = TaskStatus.values();
+        for (int i = 0; i < users; i++) {
+            String username = BenchmarkDatabases.username(i);
+            userRepository.addUser(username, "password", "Employee", "First" + i, "Last" + i, "Engineering",
+                    "Engineer", username + "@example.com");
+        }
+        for (int i = 0; i < rows; i++) {
+            taskRepository.createTaskDB(new Task("Task " + i, "Description for benchmark task number " + i,
+                    statuses[i % statuses.length], BenchmarkDatabases.username(i % users),
+                    BenchmarkDatabases.username((i + 1) % users), i % 3 == 0 ? "Looks good" : null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (databaseFile != null) {
+            Database.getPool().close();
+            BenchmarkDatabases.delete(databaseFile);
+        }
+    }
+
+    private String randomUsername() {
+        return BenchmarkDatabases.username(ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    public User getUser() {
+        return userRepository.getUser(randomUsername(), "password");
+    }
+
+    @Benchmark
+    public List<Task> getEmployeeTasks() {
+        return taskRepository.getEmployeeTasks(randomUsername());
+    }
+
+    @Benchmark
+    public EmployeeDashboard getEmployeeDashboard() {
+        return taskRepository.getEmployeeDashboard(randomUsername());
+    }
+
+    @Benchmark
+    public int updateTaskStatus() {
+        // Same Assigned <-> Rejected toggle as DatabaseBenchmark
+        int taskId = 1 + ThreadLocalRandom.current().nextInt(rows);
+        if (taskRepository.updateTaskStatus(taskId, TaskStatus.REJECTED) == UpdateResult.CONFLICT) {
+            taskRepository.updateTaskStatus(taskId, TaskStatus.ASSIGNED);
+        }
+        return taskId;
+    }
+
+    @Benchmark
+    public boolean createTaskDB() {
+        return taskRepository.createTaskDB(new Task("Benchmark task", "Created by RepositoryBenchmark", TaskStatus.ASSIGNED,
+                randomUsername(), randomUsername(), null));
+    }
+}
@@ -0,0 +1,128 @@
+package src;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Runs Database calls off the Swing event dispatch thread and hands the results back to it.
+// GUIs should never call Database directly from a listener; go through here instead.
+public class AsyncDatabase {
+    private static final ExecutorService executor = createExecutor();
+
+    // Virtual threads when the JVM has them (21+), otherwise a small pool of daemon threads
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), r -> {
+                Thread thread = new Thread(r, "database-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static Executor executor() {
+        return executor;
+    }
+
+    // Runs the query in the background; the future completes off the EDT
+    public static <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    public static CompletableFuture<Void> run(Runnable command) {
+        return CompletableFuture.runAsync(command, executor);
+    }
+
+    // Runs the query in the background and passes its result to onResult on the EDT. If the
+    // call throws, the error is shown in a dialog instead.
+    public static <T> CompletableFuture<T> load(Supplier<T> query, Consumer<T> onResult) {
+        return load(query, onResult, error -> showError(null, error));
+    }
+
+    // As above, but a failure goes to onError on the EDT, so the caller can re-enable whatever
+    // it disabled while the call was running
+    public static <T> CompletableFuture<T> load(Supplier<T> query, Consumer<T> onResult,
+            Consumer<Throwable> onError) {
+        CompletableFuture<T> future = supply(query);
+        future.whenComplete((result, error) -> deliver(future, result, error, onResult, onError, () -> true));
+        return future;
+    }
+
+    // Like load, for calls that hand back their own future (queued writes). The call itself
+    // still runs off the EDT because it may block while the write queue is full.
+    public static <T> CompletableFuture<T> loadQueued(Supplier<CompletableFuture<T>> call, Consumer<T> onResult,
+            Consumer<Throwable> onError) {
+        CompletableFuture<T> future = supply(call).thenCompose(queued -> queued);
+        future.whenComplete((result, error) -> deliver(future, result, error, onResult, onError, () -> true));
+        return future;
+    }
+
+    // Error dialog for a failed background call, over parent (or centred if null)
+    public static void showError(Component parent, Throwable error) {
+        JOptionPane.showMessageDialog(parent, "The database call failed: " + error.getMessage(), "Error",
+                JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static <T> void deliver(CompletableFuture<T> future, T result, Throwable error, Consumer<T> onResult,
+            Consumer<Throwable> onError, Supplier<Boolean> stillWanted) {
+        if (future.isCancelled()) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause != null) {
+            // Not counted here, where no operation is current: a Database operation that throws
+            // is counted against itself by QueryMetrics.time
+            System.err.println("Background database call failed: " + cause);
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (future.isCancelled() || !stillWanted.get()) {
+                return;
+            }
+            if (cause != null) {
+                onError.accept(cause);
+            } else {
+                onResult.accept(result);
+            }
+        });
+    }
+
+    // A "latest request wins" channel for refreshes: submitting a new load cancels the
+    // previous one, and a superseded result is never delivered to the EDT.
+    public static class Latest<T> {
+        private CompletableFuture<T> current;
+
+        public CompletableFuture<T> load(Supplier<T> query, Consumer<T> onResult) {
+            return load(query, onResult, error -> showError(null, error));
+        }
+
+        public synchronized CompletableFuture<T> load(Supplier<T> query, Consumer<T> onResult,
+                Consumer<Throwable> onError) {
+            if (current != null) {
+                current.cancel(false);
+            }
+            CompletableFuture<T> future = supply(query);
+            current = future;
+            future.whenComplete((result, error) -> deliver(future, result, error, onResult, onError,
+                    () -> isCurrent(future)));
+            return future;
+        }
+
+        private synchronized boolean isCurrent(CompletableFuture<T> future) {
+            return current == future;
+        }
+
+        public synchronized void cancel() {
+            if (current != null) {
+                current.cancel(false);
+                current = null;
+            }
+        }
+    }
+}
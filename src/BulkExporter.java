@@ -0,0 +1,388 @@
+package src;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Streams tasks or employees out to CSV or JSON Lines. Rows come off a forward-only cursor
+// a fetch-size at a time and go through one reusable buffer into a FileChannel, so memory
+// stays flat however big the table is. The dump is written next to the target and moved
+// into place when complete, so nobody picks up half a file.
+//
+// Reads the SQLite database directly (like BulkImporter), so it needs database.engine=sqlite.
+// In the durable profile (rollback journal) writers wait while an export runs; under WAL
+// they do not.
+//
+// Usage: java src.BulkExporter tasks|employees <file.csv|file.jsonl>
+//            [--status S] [--department D] [--manager M]
+public class BulkExporter {
+    public enum Format {
+        CSV, JSONL;
+
+        // .jsonl / .json / .ndjson are JSON Lines, anything else is CSV
+        public static Format forPath(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".jsonl") || name.endsWith(".json") || name.endsWith(".ndjson") ? JSONL : CSV;
+        }
+    }
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    private final int fetchSize;
+
+    public BulkExporter() {
+        this(DEFAULT_FETCH_SIZE);
+    }
+
+    public BulkExporter(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be positive: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    // Tasks in task_id order, with the status written as its label. status and manager ignore
+    // case; department is the department of the employee the task is assigned to.
+    public Report exportTasks(Path file, Format format, Filter filter) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT task_id, title, description, "
+                + TaskStatus.labelSql("status") + " AS status, assigned_to, manager, feedback FROM task_with_names "
+                + "WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (filter.status != null) {
+            TaskStatus status = TaskStatus.fromLabel(filter.status);
+            if (status == null) {
+                throw new IllegalArgumentException("Unknown task status: " + filter.status);
+            }
+            sql.append(" AND status = ?");
+            params.add(status.getCode());
+        }
+        if (filter.manager != null) {
+            sql.append(" AND manager_id = ").append(Database.USER_ID_SQL);
+            params.add(filter.manager);
+        }
+        if (filter.department != null) {
+            sql.append(" AND assigned_to_id IN (SELECT user_id FROM user WHERE department = ?)");
+            params.add(filter.department);
+        }
+        sql.append(" ORDER BY task_id");
+        return QueryMetrics.time("exportTasks", () -> run(file, format, sql.toString(), params));
+    }
+
+    // Everyone who is not HR, like the HR employee list, in username order. The password is
+    // never exported. manager keeps employees who have at least one task from that manager.
+    public Report exportEmployees(Path file, Format format, Filter filter) throws IOException {
+        if (filter.status != null) {
+            throw new IllegalArgumentException("Employees cannot be filtered by task status");
+        }
+        StringBuilder sql = new StringBuilder("SELECT username, first_name, last_name, email, role, department, "
+                + "job_title FROM user WHERE role != 'HR'");
+        List<Object> params = new ArrayList<>();
+        if (filter.department != null) {
+            sql.append(" AND department = ?");
+            params.add(filter.department);
+        }
+        if (filter.manager != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM task WHERE task.assigned_to_id = user.user_id "
+                    + "AND task.manager_id = ").append(Database.USER_ID_SQL).append(")");
+            params.add(filter.manager);
+        }
+        sql.append(" ORDER BY username");
+        return QueryMetrics.time("exportEmployees", () -> run(file, format, sql.toString(), params));
+    }
+
+    private Report run(Path file, Format format, String sql, List<Object> params) throws IOException {
+        Report report = new Report();
+        long start = System.nanoTime();
+        Path absolute = file.toAbsolutePath();
+        Path partial = absolute.resolveSibling(absolute.getFileName() + ".part");
+
+        try (Connection connection = Database.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet resultSet = statement.executeQuery();
+                    ChannelWriter out = new ChannelWriter(partial)) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                String[] names = new String[columnCount];
+                boolean[] numeric = new boolean[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    names[i] = metaData.getColumnLabel(i + 1);
+                    int type = metaData.getColumnType(i + 1);
+                    numeric[i] = type == Types.INTEGER || type == Types.BIGINT;
+                }
+
+                if (format == Format.CSV) {
+                    for (int i = 0; i < columnCount; i++) {
+                        if (i > 0) {
+                            out.line.append(',');
+                        }
+                        appendCsv(out.line, names[i]);
+                    }
+                    out.endLine();
+                }
+                while (resultSet.next()) {
+                    if (format == Format.CSV) {
+                        for (int i = 0; i < columnCount; i++) {
+                            if (i > 0) {
+                                out.line.append(',');
+                            }
+                            appendCsv(out.line, resultSet.getString(i + 1));
+                        }
+                    } else {
+                        out.line.append('{');
+                        for (int i = 0; i < columnCount; i++) {
+                            if (i > 0) {
+                                out.line.append(',');
+                            }
+                            appendJson(out.line, names[i]);
+                            out.line.append(':');
+                            if (numeric[i]) {
+                                long value = resultSet.getLong(i + 1);
+                                out.line.append(resultSet.wasNull() ? "null" : Long.toString(value));
+                            } else {
+                                appendJson(out.line, resultSet.getString(i + 1));
+                            }
+                        }
+                        out.line.append('}');
+                    }
+                    out.endLine();
+                    report.rowsExported++;
+                }
+                report.bytesWritten = out.bytesWritten();
+            }
+            QueryMetrics.addRows(report.rowsExported);
+            Files.move(partial, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (SQLException e) {
+            Files.deleteIfExists(partial);
+            throw new IOException("Export aborted: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    // RFC 4180: quote fields holding a comma, quote or line break, doubling inner quotes.
+    // NULL is an empty field, the same way BulkImporter reads it back.
+    static void appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    static void appendJson(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    // Each record is built in `line`, then UTF-8 encoded straight into a fixed byte buffer
+    // that is written to the channel whenever it fills
+    private static class ChannelWriter implements Closeable {
+        final StringBuilder line = new StringBuilder(256);
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private long bytesWritten = 0;
+
+        ChannelWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }
+
+        void endLine() throws IOException {
+            line.append('\n');
+            CharBuffer chars = CharBuffer.wrap(line);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            encoder.reset();
+            line.setLength(0);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        long bytesWritten() throws IOException {
+            drain();
+            return bytesWritten;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Optional row filters; null means no filter
+    public static class Filter {
+        public static final Filter NONE = new Filter(null, null, null);
+
+        private final String status;
+        private final String department;
+        private final String manager;
+
+        public Filter(String status, String department, String manager) {
+            this.status = status;
+            this.department = department;
+            this.manager = manager;
+        }
+
+        public Filter withStatus(String status) {
+            return new Filter(status, department, manager);
+        }
+
+        public Filter withDepartment(String department) {
+            return new Filter(status, department, manager);
+        }
+
+        public Filter withManager(String manager) {
+            return new Filter(status, department, manager);
+        }
+    }
+
+    public static class Report {
+        private long rowsExported;
+        private long bytesWritten;
+        private long elapsedMillis;
+
+        public long getRowsExported() {
+            return rowsExported;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Exported " + rowsExported + " rows (" + bytesWritten + " bytes) in " + elapsedMillis + " ms";
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println("Usage: java src.BulkExporter tasks|employees <file.csv|file.jsonl> "
+                    + "[--status S] [--department D] [--manager M]");
+            System.exit(2);
+        }
+        Filter filter = Filter.NONE;
+        for (int i = 2; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--status":
+                    filter = filter.withStatus(args[i + 1]);
+                    break;
+                case "--department":
+                    filter = filter.withDepartment(args[i + 1]);
+                    break;
+                case "--manager":
+                    filter = filter.withManager(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        Path file = Paths.get(args[1]);
+        BulkExporter exporter = new BulkExporter();
+
+        Database.createTables();
+        Report report;
+        if (args[0].equalsIgnoreCase("tasks")) {
+            report = exporter.exportTasks(file, Format.forPath(file), filter);
+        } else if (args[0].equalsIgnoreCase("employees")) {
+            report = exporter.exportEmployees(file, Format.forPath(file), filter);
+        } else {
+            System.err.println("Unknown export target: " + args[0]);
+            System.exit(2);
+            return;
+        }
+        System.out.println(report);
+    }
+}
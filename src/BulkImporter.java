@@ -0,0 +1,311 @@
+package src;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.*;
+
+// Streams CSV files into the user and task tables using batched inserts in chunked
+// transactions. Bad rows are reported with their line number and skipped; they never
+// abort the rest of the import.
+//
+// Usage: java src.BulkImporter users|tasks <file.csv> [chunkSize]
+public class BulkImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Set<String> ROLES = Set.of("Employee", "HR");
+
+    private final int chunkSize;
+
+    public BulkImporter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public BulkImporter(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    // Header: username,password,role,first_name,last_name,department,job_title,email
+    public Report importUsers(Path csv) throws IOException {
+        Report report = run(csv, USERS);
+        if (report.rowsImported > 0) {
+            Database.invalidateUserCaches();
+            Database.fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.RELOADED, null, null);
+        }
+        return report;
+    }
+
+    // Header: title,description,status,assigned_to,manager,feedback (status defaults to Assigned)
+    public Report importTasks(Path csv) throws IOException {
+        Report report = run(csv, TASKS);
+        if (report.rowsImported > 0) {
+            Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.RELOADED, null, null);
+        }
+        return report;
+    }
+
+    private Report run(Path csv, TableSpec spec) throws IOException {
+        Report report = new Report();
+        long start = System.nanoTime();
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8));
+                Connection connection = Database.getConnection()) {
+            int[] columnIndexes = spec.resolveHeader(reader.readRecord());
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(spec.sql)) {
+                List<Row> chunk = new ArrayList<>(chunkSize);
+                List<String> record;
+                while ((record = reader.readRecord()) != null) {
+                    report.rowsRead++;
+                    int line = reader.getRecordLine();
+                    String[] values = new String[columnIndexes.length];
+                    for (int i = 0; i < columnIndexes.length; i++) {
+                        int index = columnIndexes[i];
+                        values[i] = index >= 0 && index < record.size() ? record.get(index).trim() : "";
+                    }
+
+                    String problem = spec.validate(values);
+                    if (problem != null) {
+                        report.addError(line, problem);
+                        continue;
+                    }
+
+                    chunk.add(new Row(line, values));
+                    spec.bind(statement, values);
+                    statement.addBatch();
+                    if (chunk.size() == chunkSize) {
+                        flush(connection, statement, spec, chunk, report);
+                    }
+                }
+                flush(connection, statement, spec, chunk, report);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            report.addError(0, "Import aborted: " + e.getMessage());
+        }
+
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    private void flush(Connection connection, PreparedStatement statement, TableSpec spec, List<Row> chunk,
+            Report report) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            int[] counts = statement.executeBatch();
+            connection.commit();
+            for (int i = 0; i < counts.length; i++) {
+                recordResult(chunk.get(i), counts[i], spec, report);
+            }
+        } catch (BatchUpdateException e) {
+            // One bad row fails the whole batch; replay this chunk row by row to find it
+            connection.rollback();
+            statement.clearBatch();
+            for (Row row : chunk) {
+                try {
+                    spec.bind(statement, row.values);
+                    recordResult(row, statement.executeUpdate(), spec, report);
+                } catch (SQLException rowError) {
+                    report.addError(row.line, rowError.getMessage());
+                }
+            }
+            connection.commit();
+        }
+        chunk.clear();
+    }
+
+    private void recordResult(Row row, int count, TableSpec spec, Report report) {
+        if (count == 0) {
+            report.addError(row.line, spec.skippedMessage);
+        } else {
+            // SUCCESS_NO_INFO (-2) still means the row went in
+            report.rowsImported++;
+        }
+    }
+
+    private static final TableSpec USERS = new TableSpec(
+            "INSERT INTO user (username, password, role, first_name, last_name, department, job_title, email) "
+                    + "SELECT ?, ?, ?, ?, ?, ?, ?, ? "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM user WHERE username = ? COLLATE NOCASE)",
+            new String[] { "username", "password", "role", "first_name", "last_name", "department", "job_title",
+                    "email" },
+            new String[] { "username", "password", "role", "first_name", "last_name", "email" },
+            "Username is taken") {
+        @Override
+        String validate(String[] values) {
+            String problem = super.validate(values);
+            if (problem == null && !ROLES.contains(values[2])) {
+                problem = "Unknown role: " + values[2];
+            }
+            return problem;
+        }
+
+        @Override
+        void bind(PreparedStatement statement, String[] values) throws SQLException {
+            super.bind(statement, values);
+            statement.setString(9, values[0]);
+        }
+    };
+
+    private static final TableSpec TASKS = new TableSpec(
+            Database.INSERT_TASK_SQL,
+            new String[] { "title", "description", "status", "assigned_to", "manager", "feedback" },
+            new String[] { "title", "description" },
+            "Task was not inserted, no such assignee or manager") {
+        @Override
+        String validate(String[] values) {
+            String problem = super.validate(values);
+            if (problem == null) {
+                // The file has the label; the table stores its code
+                TaskStatus status = values[2].isEmpty() ? TaskStatus.ASSIGNED : TaskStatus.fromLabel(values[2]);
+                if (status == null) {
+                    problem = "Unknown status: " + values[2];
+                } else {
+                    values[2] = String.valueOf(status.getCode());
+                }
+            }
+            return problem;
+        }
+    };
+
+    // Describes how CSV columns map onto one table's INSERT
+    private static class TableSpec {
+        final String sql;
+        final String[] columns;
+        final Set<String> required;
+        final String skippedMessage;
+
+        TableSpec(String sql, String[] columns, String[] required, String skippedMessage) {
+            this.sql = sql;
+            this.columns = columns;
+            this.required = Set.of(required);
+            this.skippedMessage = skippedMessage;
+        }
+
+        int[] resolveHeader(List<String> header) throws IOException {
+            if (header == null) {
+                throw new IOException("CSV file is empty");
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            int[] indexes = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Integer position = positions.get(columns[i]);
+                if (position == null && required.contains(columns[i])) {
+                    throw new IOException("CSV header is missing required column: " + columns[i]);
+                }
+                indexes[i] = position == null ? -1 : position;
+            }
+            return indexes;
+        }
+
+        String validate(String[] values) {
+            for (int i = 0; i < columns.length; i++) {
+                if (values[i].isEmpty() && required.contains(columns[i])) {
+                    return "Missing " + columns[i];
+                }
+            }
+            return null;
+        }
+
+        void bind(PreparedStatement statement, String[] values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                String value = values[i];
+                statement.setString(i + 1, value.isEmpty() && !required.contains(columns[i]) ? null : value);
+            }
+        }
+    }
+
+    private static class Row {
+        final int line;
+        final String[] values;
+
+        Row(int line, String[] values) {
+            this.line = line;
+            this.values = values;
+        }
+    }
+
+    public static class Report {
+        private long rowsRead;
+        private long rowsImported;
+        private long errorCount;
+        private long elapsedMillis;
+        private final List<String> errors = new ArrayList<>();
+
+        void addError(int line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(line > 0 ? "Line " + line + ": " + message : message);
+            }
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsImported() {
+            return rowsImported;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        // The first MAX_REPORTED_ERRORS problems, in file order
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return "Read " + rowsRead + " rows, imported " + rowsImported + ", " + errorCount + " errors in "
+                    + elapsedMillis + " ms";
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java src.BulkImporter users|tasks <file.csv> [chunkSize]");
+            System.exit(2);
+        }
+        int chunkSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CHUNK_SIZE;
+        BulkImporter importer = new BulkImporter(chunkSize);
+        Path csv = Paths.get(args[1]);
+
+        Database.createTables();
+        Report report;
+        if (args[0].equalsIgnoreCase("users")) {
+            report = importer.importUsers(csv);
+        } else if (args[0].equalsIgnoreCase("tasks")) {
+            report = importer.importTasks(csv);
+        } else {
+            System.err.println("Unknown import target: " + args[0]);
+            System.exit(2);
+            return;
+        }
+
+        for (String error : report.getErrors()) {
+            System.err.println(error);
+        }
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,465 @@
+package src;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded pool of long-lived connections. Callers keep using try-with-resources:
+// closing a borrowed connection hands it back to the pool instead of closing it.
+// Every physical connection has the configured PRAGMAs applied once, when it is opened.
+public class ConnectionPool {
+    private final String url;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+    private final Map<String, String> pragmas;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder invalidCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    public ConnectionPool(String url, int maxSize, int minIdle, long idleTimeoutMillis, long borrowTimeoutMillis,
+            int statementCacheSize, Map<String, String> pragmas) {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: max=" + maxSize + ", minIdle=" + minIdle);
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.pragmas = new LinkedHashMap<>(pragmas);
+        for (Map.Entry<String, String> pragma : this.pragmas.entrySet()) {
+            if (!pragma.getKey().matches("[a-z_]+") || !pragma.getValue().matches("-?[A-Za-z0-9_]+")) {
+                throw new IllegalArgumentException("Invalid PRAGMA: " + pragma.getKey() + " = " + pragma.getValue());
+            }
+        }
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Opens minIdle connections up front so the first clicks do not pay the open cost.
+    public void warmUp() {
+        List<Connection> borrowed = new ArrayList<>();
+        try {
+            for (int i = 0; i < minIdle; i++) {
+                borrowed.add(getConnection());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error warming up connection pool: " + e.getMessage());
+        } finally {
+            for (Connection connection : borrowed) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire();
+        if (!acquired) {
+            waitCount.increment();
+            try {
+                acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+            if (!acquired) {
+                timeoutCount.increment();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis + " ms waiting for a connection");
+            }
+        }
+        recordWait(System.nanoTime() - start);
+        borrowCount.increment();
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isValid(pooled)) {
+                    return pooled.lease();
+                }
+                invalidCount.increment();
+                closeQuietly(pooled);
+            }
+            pooled = open();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url);
+        try {
+            applyPragmas(raw);
+            try (Statement statement = raw.createStatement();
+                    ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM sqlite_master")) {
+                // Forces SQLite to load and parse the schema once per physical connection
+                resultSet.next();
+            }
+        } catch (SQLException e) {
+            raw.close();
+            throw e;
+        }
+        createdCount.increment();
+        return new PooledConnection(raw);
+    }
+
+    private void applyPragmas(Connection raw) throws SQLException {
+        try (Statement statement = raw.createStatement()) {
+            for (Map.Entry<String, String> pragma : pragmas.entrySet()) {
+                statement.execute("PRAGMA " + pragma.getKey() + " = " + pragma.getValue());
+            }
+            if (pragmas.containsKey("journal_mode")) {
+                // SQLite keeps the old mode instead of failing when it cannot switch (e.g. another
+                // process has the file open), so check what we actually got
+                try (ResultSet resultSet = statement.executeQuery("PRAGMA journal_mode")) {
+                    String mode = resultSet.next() ? resultSet.getString(1) : null;
+                    if (mode != null && !mode.equalsIgnoreCase(pragmas.get("journal_mode"))) {
+                        System.err.println("Could not switch journal_mode to " + pragmas.get("journal_mode")
+                                + ", still " + mode);
+                    }
+                }
+            }
+        }
+    }
+
+    public Map<String, String> getPragmas() {
+        return Collections.unmodifiableMap(pragmas);
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return !pooled.raw.isClosed() && pooled.raw.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        boolean reusable = !closed;
+        try {
+            if (!pooled.raw.getAutoCommit()) {
+                pooled.raw.rollback();
+                pooled.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            closeQuietly(pooled);
+        }
+        permits.release();
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        // Oldest connections sit at the tail because released ones are pushed to the head
+        while (idle.size() > minIdle) {
+            PooledConnection oldest = idle.peekLast();
+            if (oldest == null || oldest.lastUsed > cutoff) {
+                break;
+            }
+            if (idle.removeLastOccurrence(oldest)) {
+                evictedCount.increment();
+                closeQuietly(oldest);
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.statements.closeAll();
+            pooled.raw.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    public long getInvalidCount() {
+        return invalidCount.sum();
+    }
+
+    public long getStatementHits() {
+        return statementHits.sum();
+    }
+
+    public long getStatementMisses() {
+        return statementMisses.sum();
+    }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.sum();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "active=" + getActiveCount() +
+                ", idle=" + getIdleCount() +
+                ", max=" + maxSize +
+                ", borrows=" + getBorrowCount() +
+                ", waits=" + getWaitCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", avgWaitMs=" + String.format("%.3f", getAverageWaitMillis()) +
+                ", maxWaitMs=" + String.format("%.3f", getMaxWaitMillis()) +
+                ", created=" + getCreatedCount() +
+                ", evicted=" + getEvictedCount() +
+                ", invalid=" + getInvalidCount() +
+                ", stmtHits=" + getStatementHits() +
+                ", stmtMisses=" + getStatementMisses() +
+                '}';
+    }
+
+    // A physical connection plus the bookkeeping the pool needs for it
+    private class PooledConnection {
+        private final Connection raw;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new StatementCache(raw);
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new LeaseHandler(this));
+        }
+    }
+
+    // Forwards everything to the physical connection except close(), which returns it to the pool
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released = false;
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.raw.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(pooled.raw)) {
+                        return pooled.raw;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.raw + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                if (args.length == 1) {
+                    return pooled.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && args[1] instanceof Integer) {
+                    return pooled.statements.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // LRU cache of prepared statements for one physical connection, keyed by SQL text.
+    // Only ever touched by the thread currently holding the connection, so it needs no locking.
+    private class StatementCache {
+        private final Connection raw;
+        private final LinkedHashMap<String, CachedStatement> statements;
+
+        StatementCache(Connection raw) {
+            this.raw = raw;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        closeQuietly(eldest.getValue().raw);
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            if (statementCacheSize <= 0) {
+                statementMisses.increment();
+                return raw.prepareStatement(sql, autoGeneratedKeys);
+            }
+            String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? sql + "\u0000keys" : sql;
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.raw.isClosed()) {
+                statementHits.increment();
+                return cached.proxy;
+            }
+            statementMisses.increment();
+            cached = new CachedStatement(raw.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, cached);
+            return cached.proxy;
+        }
+
+        void closeAll() {
+            for (CachedStatement cached : statements.values()) {
+                closeQuietly(cached.raw);
+            }
+            statements.clear();
+        }
+
+        private void closeQuietly(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    // A prepared statement whose close() only resets it so the next borrower can reuse it
+    private static class CachedStatement implements InvocationHandler {
+        private final PreparedStatement raw;
+        private final PreparedStatement proxy;
+
+        CachedStatement(PreparedStatement raw) {
+            this.raw = raw;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    raw.clearParameters();
+                    raw.clearBatch();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal streaming CSV reader (RFC 4180): quoted fields, doubled quotes and
+// line breaks inside quotes. Reads one record at a time so memory stays flat.
+public class CsvReader implements Closeable {
+    private final BufferedReader reader;
+    private int lineNumber = 0;
+    private int recordLine = 0;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    // Returns the next record, or null at end of input
+    public List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isEmpty()) {
+            lineNumber++;
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        recordLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (quoted) {
+                    // Line break inside a quoted field
+                    String next = reader.readLine();
+                    if (next == null) {
+                        throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    line = next;
+                    i = 0;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+    }
+
+    // Line number on which the most recently returned record started
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
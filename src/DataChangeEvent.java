@@ -0,0 +1,53 @@
+package src;
+
+// Describes one committed change to the user or task table. The key is the task_id
+// (Integer) or username (String); the row is the Task/User after the change, or null
+// when the change does not carry the full row (deletes, status-only updates, reloads).
+public class DataChangeEvent {
+    public enum Entity {
+        TASK, USER
+    }
+
+    public enum Type {
+        INSERTED, UPDATED, DELETED,
+        // Many rows changed at once (e.g. a bulk import); listeners should re-read everything
+        RELOADED
+    }
+
+    private final Entity entity;
+    private final Type type;
+    private final Object key;
+    private final Object row;
+
+    public DataChangeEvent(Entity entity, Type type, Object key, Object row) {
+        this.entity = entity;
+        this.type = type;
+        this.key = key;
+        this.row = row;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public Object getRow() {
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "DataChangeEvent{" +
+                "entity=" + entity +
+                ", type=" + type +
+                ", key=" + key +
+                '}';
+    }
+}
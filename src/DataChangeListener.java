@@ -0,0 +1,7 @@
+package src;
+
+// Notified after a change to the user or task table has been committed. Called on the
+// thread that made the change, which is usually not the EDT.
+public interface DataChangeListener {
+    void dataChanged(DataChangeEvent event);
+}
@@ -2,9 +2,119 @@ package src;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 public class Database {
-    private static String url = "jdbc:sqlite:databases/database.db";
+    // Path and storage profile from database.properties / system properties, see DatabaseConfig
+    private static volatile DatabaseConfig config = DatabaseConfig.load();
+
+    // Pool sizing: SQLite allows one writer at a time, so a handful of connections is enough
+    private static final int POOL_MAX_SIZE = 8;
+    private static final int POOL_MIN_IDLE = 2;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 30 * 1000;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private static volatile ConnectionPool pool = createPool(config);
+
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final LongAdder busyErrors = new LongAdder();
+
+    private static final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Read-through caches for profile lookups and the non-HR username list. Both are
+    // invalidated by addUser, updateEmployee and deleteUser.
+    private static final int USER_CACHE_SIZE = 1000;
+    private static final long USER_CACHE_TTL_MILLIS = 5 * 60 * 1000;
+    private static final String EMPLOYEE_USERNAMES_KEY = "employees";
+
+    private static final LruCache<String, User> userCache = new LruCache<>(USER_CACHE_SIZE,
+            USER_CACHE_TTL_MILLIS);
+    private static final LruCache<String, List<String>> usernameListCache = new LruCache<>(1,
+            USER_CACHE_TTL_MILLIS);
+
+    // Tasks refer to users by user_id (schema migration 6); this looks one up by username
+    static final String USER_ID_SQL = "(SELECT user_id FROM user WHERE username = ? COLLATE NOCASE)";
+
+    // Assignments updateTask and updateEmployee can write, in the order of the Task/User dirty
+    // bits. Only the changed ones are written; the UPDATE for each combination is built once.
+    private static final String[] TASK_ASSIGNMENTS = { "title = ?", "description = ?", "status = ?",
+            "assigned_to_id = " + USER_ID_SQL, "manager_id = " + USER_ID_SQL, "feedback = ?" };
+    private static final String[] USER_ASSIGNMENTS = { "role = ?", "first_name = ?", "last_name = ?",
+            "department = ?", "job_title = ?", "email = ?" };
+    // Guards an assignee or manager change: null, or a username that exists
+    private static final String KNOWN_USER_SQL = " AND (? IS NULL OR EXISTS "
+            + "(SELECT 1 FROM user WHERE username = ? COLLATE NOCASE))";
+    private static final Map<Integer, String> taskUpdateSql = new ConcurrentHashMap<>();
+    private static final Map<Integer, String> userUpdateSql = new ConcurrentHashMap<>();
+
+    // Queued status changes and deletes are committed in groups by one writer thread
+    private static final int WRITE_QUEUE_CAPACITY = 4096;
+    private static final int WRITE_BATCH_SIZE = 256;
+    private static final int WRITE_MAX_ATTEMPTS = 8;
+    private static GroupCommitWriter writer;
+    // The writer's own connection, so it never queues behind readers for a pooled one
+    private static ConnectionPool writerPool;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            closeWriter();
+            pool.close();
+        }, "connection-pool-shutdown"));
+    }
+
+    private static ConnectionPool createPool(DatabaseConfig config) {
+        return createPool(config, POOL_MAX_SIZE, POOL_MIN_IDLE);
+    }
+
+    private static ConnectionPool createPool(DatabaseConfig config, int maxSize, int minIdle) {
+        return new ConnectionPool(config.getUrl(), maxSize, minIdle, POOL_IDLE_TIMEOUT_MILLIS,
+                POOL_BORROW_TIMEOUT_MILLIS, STATEMENT_CACHE_SIZE, config.getPragmas());
+    }
+
+    // Points the data layer at a different database file and/or storage profile (benchmarks,
+    // tools). Call before createTables(); connections borrowed from the old pool are closed
+    // when returned.
+    public static synchronized void configure(DatabaseConfig newConfig) {
+        // Commit anything still queued against the old file first
+        closeWriter();
+        ConnectionPool old = pool;
+        config = newConfig;
+        pool = createPool(newConfig);
+        old.close();
+        invalidateUserCaches();
+    }
+
+    public static void setDatabasePath(String path) {
+        configure(config.withPath(path));
+    }
+
+    public static DatabaseConfig getConfig() {
+        return config;
+    }
+
+    // Started on first use so tools that never queue a write don't get a writer thread
+    public static synchronized GroupCommitWriter getWriter() {
+        if (writer == null) {
+            writerPool = createPool(config, 1, 0);
+            writer = new GroupCommitWriter(writerPool::getConnection, WRITE_QUEUE_CAPACITY, WRITE_BATCH_SIZE,
+                    WRITE_MAX_ATTEMPTS, POOL_BORROW_TIMEOUT_MILLIS);
+        }
+        return writer;
+    }
+
+    private static synchronized void closeWriter() {
+        if (writer != null) {
+            writer.close();
+            writerPool.close();
+            writer = null;
+            writerPool = null;
+        }
+    }
 
     public static void createTables() {
         try {
@@ -16,6 +126,128 @@ public class Database {
         }
         createUserTable();
         createTaskTable();
+        migrateSchema();
+        pool.warmUp();
+    }
+
+    private static void migrateSchema() {
+        try (Connection connection = getConnection()) {
+            SchemaMigrations.migrate(connection);
+        } catch (SQLException e) {
+            reportError("Error migrating schema", e);
+        }
+    }
+
+    // Logs a failed statement and marks the running operation as failed in QueryMetrics.
+    // SQLITE_BUSY/SQLITE_LOCKED failures (another connection held the write lock past the busy
+    // timeout) are also counted so load tests can report a busy rate.
+    static void reportError(String message, SQLException e) {
+        int primaryCode = e.getErrorCode() & 0xff;
+        if (primaryCode == SQLITE_BUSY || primaryCode == SQLITE_LOCKED) {
+            busyErrors.increment();
+        }
+        QueryMetrics.markError();
+        System.err.println(message + ": " + e.getMessage());
+    }
+
+    public static long getBusyErrorCount() {
+        return busyErrors.sum();
+    }
+
+    static Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    public static LruCache<String, User> getUserCache() {
+        return userCache;
+    }
+
+    public static LruCache<String, List<String>> getUsernameListCache() {
+        return usernameListCache;
+    }
+
+    // Usernames are matched ignoring case, so the cache is keyed by the folded name
+    private static String userCacheKey(String username) {
+        return username == null ? null : InMemoryUserRepository.fold(username);
+    }
+
+    private static void invalidateUser(String username) {
+        userCache.invalidate(userCacheKey(username));
+        usernameListCache.invalidateAll();
+    }
+
+    static void invalidateUserCaches() {
+        userCache.invalidateAll();
+        usernameListCache.invalidateAll();
+    }
+
+    public static void addChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeChangeListener(DataChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    static void fireChange(DataChangeEvent.Entity entity, DataChangeEvent.Type type, Object key, Object row) {
+        DataChangeEvent event = new DataChangeEvent(entity, type, key, row);
+        for (DataChangeListener listener : listeners) {
+            try {
+                listener.dataChanged(event);
+            } catch (RuntimeException e) {
+                System.err.println("Error in change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    // Runs a query on a pooled connection and maps every row with the compiled mapper for this SQL
+    private static <T> List<T> queryList(String sql, RowMappers.Compiler<T> compiler, Object... params)
+            throws SQLException {
+        List<T> results = new ArrayList<>();
+        try (
+                Connection connection = getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql);) {
+            bind(statement, params);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                RowMapper<T> mapper = null;
+                while (resultSet.next()) {
+                    if (mapper == null) {
+                        mapper = RowMappers.forQuery(sql, resultSet, compiler);
+                    }
+                    results.add(mapper.mapRow(resultSet));
+                }
+            }
+        }
+        QueryMetrics.addRows(results.size());
+        return results;
+    }
+
+    private static <T> T queryOne(String sql, RowMappers.Compiler<T> compiler, Object... params)
+            throws SQLException {
+        try (
+                Connection connection = getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql);) {
+            bind(statement, params);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    QueryMetrics.addRows(1);
+                    return RowMappers.forQuery(sql, resultSet, compiler).mapRow(resultSet);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
     }
 
     private static void createUserTable() {
@@ -38,8 +270,8 @@ public class Database {
                 + "title TEXT NOT NULL,"
                 + "description TEXT NOT NULL,"
                 + "status TEXT NOT NULL CHECK(status IN ('Assigned', 'Accepted', 'Rejected', 'Completed')),"
-                + "assigned_to TEXT,"
-                + "manager TEXT,"
+                + "assigned_to TEXT COLLATE NOCASE,"
+                + "manager TEXT COLLATE NOCASE,"
                 + "feedback TEXT,"
                 + "FOREIGN KEY (assigned_to) REFERENCES user (username),"
                 + "FOREIGN KEY (manager) REFERENCES user (username))";
@@ -48,389 +280,761 @@ public class Database {
 
     private static void connect(String sql) {
         try (
-                Connection connection = DriverManager.getConnection(url);
+                Connection connection = getConnection();
                 Statement statement = connection.createStatement();) {
             statement.execute(sql);
             System.out.println("Table created successfully!");
         } catch (SQLException e) {
-            System.err.println("Error creating table: " + e.getMessage());
+            reportError("Error creating table", e);
         }
     }
 
     public static boolean addUser(String username, String password, String role, String firstName, String lastName,
             String department, String jobTitle, String email) {
-        if (userExists(username))
-            return false;
+        return QueryMetrics.time("addUser", () -> {
+            if (userExists(username))
+                return false;
 
-        String sql = "INSERT INTO user (username, password, role, first_name, last_name, department, job_title, email) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+            String sql = "INSERT INTO user (username, password, role, first_name, last_name, department, job_title, email) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
-            statement.setString(2, password);
-            statement.setString(3, role);
-            statement.setString(4, firstName);
-            statement.setString(5, lastName);
-            statement.setString(6, department);
-            statement.setString(7, jobTitle);
-            statement.setString(8, email);
-
-            int rowsInserted = statement.executeUpdate();
-            if (rowsInserted > 0) {
-                System.out.println("User added successfully!");
+            try (
+                    Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql);) {
+                statement.setString(1, username);
+                statement.setString(2, password);
+                statement.setString(3, role);
+                statement.setString(4, firstName);
+                statement.setString(5, lastName);
+                statement.setString(6, department);
+                statement.setString(7, jobTitle);
+                statement.setString(8, email);
+
+                int rowsInserted = statement.executeUpdate();
+                QueryMetrics.addRows(rowsInserted);
+                if (rowsInserted > 0) {
+                    invalidateUser(username);
+                    System.out.println("User added successfully!");
+                    fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.INSERTED, username,
+                            new User(username, password, role, firstName, lastName, department, jobTitle, email));
+                }
+            } catch (SQLException e) {
+                reportError("Error inserting data", e);
+                return false; // Ensure we return false when an exception is caught
             }
-        } catch (SQLException e) {
-            System.err.println("Error inserting data: " + e.getMessage());
-            return false; // Ensure we return false when an exception is caught
-        }
 
-        return true;
+            return true;
+        });
     }
 
+    // Their tasks are kept, unassigned, and tasks they managed lose their manager, in the same
+    // transaction: foreign keys do not let a task point at a deleted user. For whole teams,
+    // or to reassign or archive the tasks instead, see Offboarding. Nothing is written unless
+    // the user itself is deleted.
     public static boolean deleteUser(String username) {
-        if (!userExists(username)) {
-            System.out.println("User does not exist.");
-            return false;
-        }
-
-        String sql = "DELETE FROM user WHERE username = ?";
-
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
-
-            int rowsDeleted = statement.executeUpdate();
-            if (rowsDeleted > 0) {
+        return QueryMetrics.time("deleteUser", () -> {
+            try (Connection connection = getConnection()) {
+                int tasksChanged = 0;
+                int rowsDeleted = 0;
+                connection.setAutoCommit(false);
+                String stored = null;
+                try {
+                    // Resolved once, ignoring case like every other username lookup, so the task
+                    // updates and the delete all act on the same user
+                    Integer userId = null;
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "SELECT user_id, username FROM user WHERE username = ? COLLATE NOCASE")) {
+                        statement.setString(1, username);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            if (resultSet.next()) {
+                                userId = resultSet.getInt(1);
+                                stored = resultSet.getString(2);
+                            }
+                        }
+                    }
+                    if (userId != null) {
+                        tasksChanged = executeUpdate(connection, "UPDATE task SET assigned_to_id = NULL, "
+                                + "version = version + 1 WHERE assigned_to_id = ?", userId);
+                        tasksChanged += executeUpdate(connection, "UPDATE task SET manager_id = NULL, "
+                                + "version = version + 1 WHERE manager_id = ?", userId);
+                        rowsDeleted = executeUpdate(connection, "DELETE FROM user WHERE user_id = ?", userId);
+                    }
+                    if (rowsDeleted > 0) {
+                        connection.commit();
+                    } else {
+                        connection.rollback();
+                    }
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+                if (rowsDeleted == 0) {
+                    System.out.println("User does not exist.");
+                    return false;
+                }
+                QueryMetrics.addRows(rowsDeleted + tasksChanged);
+                invalidateUser(stored);
                 System.out.println("User deleted successfully!");
+                fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.DELETED, stored, null);
+                if (tasksChanged > 0) {
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.RELOADED, null, null);
+                }
                 return true;
-            } else {
-                System.out.println("No user was deleted.");
+            } catch (SQLException e) {
+                reportError("Error deleting user", e);
                 return false;
             }
-        } catch (SQLException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
-            return false;
+        });
+    }
+
+    private static int executeUpdate(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, params);
+            return statement.executeUpdate();
         }
     }
 
     public static User getUser(String username, String password) {
-        String sql = "SELECT * FROM user WHERE username = ? AND password = ?";
-
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
-            statement.setString(2, password);
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    String role = resultSet.getString("role");
-                    String firstName = resultSet.getString("first_name");
-                    String lastName = resultSet.getString("last_name");
-                    String email = resultSet.getString("email");
-                    String departmentName = resultSet.getString("department");
-                    String jobTitle = resultSet.getString("job_title");
-                    User user = new User(username, password, role, firstName, lastName, departmentName, jobTitle,
-                            email);
-                    return user;
-                }
+        return QueryMetrics.time("getUser", () -> {
+            User user = userCache.get(userCacheKey(username), Database::loadUser);
+            if (user == null || !user.getPassword().equals(password)) {
+                return null;
             }
-        } catch (SQLException e) {
-            System.err.println("Error retrieving data: " + e.getMessage());
-        }
-        return null;
+            return new User(user);
+        });
     }
 
     public static User getUserHR(String username) {
-        String sql = "SELECT * FROM user WHERE username = ? ";
+        return QueryMetrics.time("getUserHR", () -> {
+            User user = userCache.get(userCacheKey(username), Database::loadUser);
+            // Callers may edit the returned object, so never hand out the cached instance
+            return user == null ? null : new User(user);
+        });
+    }
 
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
+    private static User loadUser(String username) {
+        String sql = "SELECT * FROM user WHERE username = ? COLLATE NOCASE";
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    String role = resultSet.getString("role");
-                    String firstName = resultSet.getString("first_name");
-                    String lastName = resultSet.getString("last_name");
-                    String email = resultSet.getString("email");
-                    String password = resultSet.getString("password");
-                    String departmentName = resultSet.getString("department");
-                    String jobTitle = resultSet.getString("job_title");
-                    User user = new User(username, password, role, firstName, lastName, departmentName, jobTitle,
-                            email);
-                    return user;
-                }
-            }
+        try {
+            return queryOne(sql, RowMappers.USER, username);
         } catch (SQLException e) {
-            System.err.println("Error retrieving data: " + e.getMessage());
+            reportError("Error retrieving data", e);
         }
         return null;
     }
 
     private static boolean userExists(String username) {
-        String sql = "SELECT * FROM user WHERE LOWER(username) = LOWER(?)";
+        String sql = "SELECT username FROM user WHERE username = ? COLLATE NOCASE LIMIT 1";
 
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
+        try {
+            return queryOne(sql, RowMappers.FIRST_STRING, username) != null;
+        } catch (SQLException e) {
+            reportError("Error retrieving data", e);
+        }
+        return false;
+    }
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    return true;
+    // Compare-and-set: only writes if the row still has the version the caller read. On success
+    // the user's version is bumped to match the database. Only the fields changed since the
+    // user was loaded are written, and nothing at all if none were.
+    public static UpdateResult updateEmployee(User user) {
+        return QueryMetrics.time("updateEmployee", () -> {
+            if (!user.isDirty()) {
+                System.out.println("No changes to save.");
+                return UpdateResult.UPDATED;
+            }
+            int dirty = user.getDirtyFields();
+            String sql = userUpdateSql.computeIfAbsent(dirty,
+                    fields -> updateSql("user", USER_ASSIGNMENTS, fields, "username"));
+
+            try (Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = bindChanged(statement, dirty, user.getRole(), user.getFirstName(), user.getLastName(),
+                        user.getDepartment(), user.getJobTitle(), user.getEmail());
+                statement.setString(index++, user.getUsername());
+                statement.setInt(index, user.getVersion());
+
+                int rowsUpdated = statement.executeUpdate();
+                QueryMetrics.addRows(rowsUpdated);
+                // Either way the cached copy is stale: it was just changed, by us or by someone else
+                invalidateUser(user.getUsername());
+                if (rowsUpdated > 0) {
+                    user.setVersion(user.getVersion() + 1);
+                    user.markClean();
+                    System.out.println("User updated successfully!");
+                    fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.UPDATED, user.getUsername(), user);
+                    return UpdateResult.UPDATED;
                 }
+                if (currentVersion(connection, "SELECT version FROM user WHERE username = ?",
+                        user.getUsername()) == null) {
+                    System.out.println("User does not exist.");
+                    return UpdateResult.NOT_FOUND;
+                }
+                System.out.println("User was changed by someone else, not updated.");
+                return UpdateResult.CONFLICT;
+            } catch (SQLException e) {
+                reportError("Error updating user", e);
+                return UpdateResult.FAILED;
+            }
+        });
+    }
+
+    // UPDATE <table> SET <each dirty column> = ?, version = version + 1 WHERE <key> = ? AND version = ?
+    private static String updateSql(String table, String[] assignments, int dirty, String key) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < assignments.length; i++) {
+            if ((dirty & (1 << i)) != 0) {
+                sql.append(assignments[i]).append(", ");
             }
-        } catch (SQLException e) {
-            System.err.println("Error retrieving data: " + e.getMessage());
         }
-        return false;
+        return sql.append("version = version + 1 WHERE ").append(key).append(" = ? AND version = ?").toString();
     }
 
-    //
-    public static boolean updateEmployee(User user) {
-        if (!userExists(user.getUsername())) {
-            System.out.println("User does not exist.");
-            return false;
+    // Binds the values whose bit is set, in order; returns the next parameter index
+    private static int bindChanged(PreparedStatement statement, int dirty, Object... values) throws SQLException {
+        int index = 1;
+        for (int i = 0; i < values.length; i++) {
+            if ((dirty & (1 << i)) != 0) {
+                if (values[i] instanceof TaskStatus) {
+                    statement.setInt(index++, ((TaskStatus) values[i]).getCode());
+                } else {
+                    statement.setString(index++, (String) values[i]);
+                }
+            }
         }
+        return index;
+    }
 
-        String sql = "UPDATE user SET first_name = ?, last_name = ?, role = ?, department = ?, job_title = ?, email = ? WHERE username = ?";
-
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, user.getFirstName());
-            statement.setString(2, user.getLastName());
-            statement.setString(3, user.getRole());
-            statement.setString(4, user.getDepartment());
-            statement.setString(5, user.getJobTitle());
-            statement.setString(6, user.getEmail());
-            statement.setString(7, user.getUsername());
-
-            int rowsUpdated = statement.executeUpdate();
-            if (rowsUpdated > 0) {
-                System.out.println("User updated successfully!");
-                return true;
-            } else {
-                System.out.println("No user was updated.");
-                return false;
+    // Version of the row the query finds, or null if it has gone. Runs on the caller's
+    // connection: borrowing a second one while holding the first can starve the pool.
+    private static Integer currentVersion(Connection connection, String sql, Object key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(statement, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : null;
             }
-        } catch (SQLException e) {
-            System.err.println("Error updating user: " + e.getMessage());
-            return false;
         }
     }
 
+    // Inserts a task given its assignee and manager by username: title, description, status
+    // code, assigned_to, manager, feedback. Inserts nothing if a non-null name matches no user.
+    static final String INSERT_TASK_SQL = "INSERT INTO task (title, description, status, assigned_to_id, "
+            + "manager_id, feedback) SELECT ?1, ?2, ?3, a.user_id, m.user_id, ?6 "
+            + "FROM (SELECT ?4 AS assigned_to, ?5 AS manager) n "
+            + "LEFT JOIN user a ON a.username = n.assigned_to COLLATE NOCASE "
+            + "LEFT JOIN user m ON m.username = n.manager COLLATE NOCASE "
+            + "WHERE (n.assigned_to IS NULL OR a.user_id IS NOT NULL) AND (n.manager IS NULL OR m.user_id IS NOT NULL)";
+
     public static boolean createTaskDB(Task task) {
-        String sql = "INSERT INTO task (title, description, status, assigned_to, manager, feedback) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, task.getTitle());
-            statement.setString(2, task.getDescription());
-            statement.setString(3, task.getStatus());
-            statement.setString(4, task.getAssignedTo());
-            statement.setString(5, task.getManager());
-            statement.setString(6, task.getFeedback());
-            int rowsInserted = statement.executeUpdate();
-            if (rowsInserted > 0) {
-                System.out.println("Task created successfully!");
-                return true;
+        return QueryMetrics.time("createTaskDB", () -> {
+            try (Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(INSERT_TASK_SQL,
+                            Statement.RETURN_GENERATED_KEYS)) {
+                statement.setString(1, task.getTitle());
+                statement.setString(2, task.getDescription());
+                statement.setInt(3, task.getStatus().getCode());
+                statement.setString(4, task.getAssignedTo());
+                statement.setString(5, task.getManager());
+                statement.setString(6, task.getFeedback());
+                int rowsInserted = statement.executeUpdate();
+                QueryMetrics.addRows(rowsInserted);
+                if (rowsInserted > 0) {
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            task.setTaskId(keys.getInt(1));
+                        }
+                    }
+                    task.markClean();
+                    System.out.println("Task created successfully!");
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.INSERTED, task.getTaskId(), task);
+                    return true;
+                }
+                System.out.println("Task was not created, no such assignee or manager.");
+            } catch (SQLException e) {
+                reportError("Error inserting task", e);
+                return false;
             }
-        } catch (SQLException e) {
-            System.err.println("Error inserting task: " + e.getMessage());
             return false;
-        }
-        return false;
 
+        });
     }
 
-    // Method to update task status
-    public static void updateTaskStatus(int taskId, String newStatus) {
-        String sql = "UPDATE task SET status = ? WHERE task_id = ?";
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, newStatus);
-            statement.setInt(2, taskId);
-            int rowsUpdated = statement.executeUpdate();
-            if (rowsUpdated > 0) {
-                System.out.println("Task status updated successfully!");
-            } else {
-                System.out.println("No task was updated.");
+    // Moves a task to a new status only if its current status allows it (see TaskStatus). The
+    // check is part of the UPDATE, so it holds even when several people click at once.
+    private static final String UPDATE_STATUS_SQL = "UPDATE task SET status = ?, version = version + 1 "
+            + "WHERE task_id = ? AND ((? >> status) & 1) = 1";
+
+    // CONFLICT if the task is no longer in a status that can move to newStatus
+    public static UpdateResult updateTaskStatus(int taskId, TaskStatus newStatus) {
+        return QueryMetrics.time("updateTaskStatus", () -> {
+            try (Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS_SQL)) {
+                bindStatusChange(statement, taskId, newStatus);
+                int rowsUpdated = statement.executeUpdate();
+                QueryMetrics.addRows(rowsUpdated);
+                if (rowsUpdated > 0) {
+                    System.out.println("Task status updated successfully!");
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.UPDATED, taskId, null);
+                    return UpdateResult.UPDATED;
+                }
+                if (currentVersion(connection, "SELECT version FROM task WHERE task_id = ?", taskId) == null) {
+                    System.out.println("No task was updated.");
+                    return UpdateResult.NOT_FOUND;
+                }
+                System.out.println("Task can no longer be moved to " + newStatus + ".");
+                return UpdateResult.CONFLICT;
+            } catch (SQLException e) {
+                reportError("Error updating task status", e);
+                return UpdateResult.FAILED;
             }
-        } catch (SQLException e) {
-            System.err.println("Error updating task status: " + e.getMessage());
-        }
+        });
     }
 
-    public static boolean updateTask(Task task) {
-        String sql = "UPDATE task SET title = ?, description = ?, status = ?, assigned_to = ?, manager = ?, feedback = ? WHERE task_id = ?";
-
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, task.getTitle());
-            statement.setString(2, task.getDescription());
-            statement.setString(3, task.getStatus());
-            statement.setString(4, task.getAssignedTo());
-            statement.setString(5, task.getManager());
-            statement.setString(6, task.getFeedback());
-            statement.setInt(7, task.getTaskId());
-            int rowsUpdated = statement.executeUpdate();
-            if (rowsUpdated == 0) {
-                System.out.println("Updating task failed, no rows affected.");
-                return false;
+    private static void bindStatusChange(PreparedStatement statement, int taskId, TaskStatus newStatus)
+            throws SQLException {
+        statement.setInt(1, newStatus.getCode());
+        statement.setInt(2, taskId);
+        statement.setInt(3, newStatus.getAllowedFromMask());
+    }
+
+    // Same as updateTaskStatus, but committed together with other queued changes. Completes
+    // with false if the task is gone or its status does not allow the move.
+    public static CompletableFuture<Boolean> queueTaskStatus(int taskId, TaskStatus newStatus) {
+        return getWriter().submit(new GroupCommitWriter.Mutation() {
+            @Override
+            public int apply(Connection connection) throws SQLException {
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS_SQL)) {
+                    bindStatusChange(statement, taskId, newStatus);
+                    return statement.executeUpdate();
+                }
             }
-            System.out.println("Task updated successfully.");
-            return true;
-        } catch (SQLException e) {
-            System.out.println("Error updating task: " + e.getMessage());
-            return false;
-        }
+
+            @Override
+            public void committed(int rows) {
+                if (rows > 0) {
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.UPDATED, taskId, null);
+                }
+            }
+        });
     }
 
-    public static List<Task> getEmployeeTasks(String username) {
-        List<Task> tasks = new ArrayList<>();
-        String sql = "SELECT * FROM task WHERE LOWER(assigned_to) = LOWER(?)";
+    // Same as deleteTask, but committed together with other queued changes
+    public static CompletableFuture<Boolean> queueDeleteTask(int taskId) {
+        return getWriter().submit(new GroupCommitWriter.Mutation() {
+            @Override
+            public int apply(Connection connection) throws SQLException {
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM task WHERE task_id = ?")) {
+                    statement.setInt(1, taskId);
+                    return statement.executeUpdate();
+                }
+            }
 
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
+            @Override
+            public void committed(int rows) {
+                if (rows > 0) {
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.DELETED, taskId, null);
+                }
+            }
+        });
+    }
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    int id = resultSet.getInt("task_id");
-                    String title = resultSet.getString("title");
-                    String description = resultSet.getString("description");
-                    String status = resultSet.getString("status");
-                    String assignedTo = resultSet.getString("assigned_to");
-                    String manager = resultSet.getString("manager");
-                    String feedback = resultSet.getString("feedback");
-                    tasks.add(new Task(id, title, description, status, assignedTo, manager, feedback));
+    // Compare-and-set on task_id and version, writing only the changed fields, like updateEmployee.
+    // A status change must also be a legal move from the stored status, and a new assignee or
+    // manager must be an existing user, or nothing is written.
+    public static UpdateResult updateTask(Task task) {
+        return QueryMetrics.time("updateTask", () -> {
+            if (!task.isDirty()) {
+                System.out.println("No changes to save.");
+                return UpdateResult.UPDATED;
+            }
+            int dirty = task.getDirtyFields();
+            String sql = taskUpdateSql.computeIfAbsent(dirty,
+                    fields -> updateSql("task", TASK_ASSIGNMENTS, fields, "task_id")
+                            + ((fields & Task.STATUS) != 0 ? " AND ((? >> status) & 1) = 1" : "")
+                            + ((fields & Task.ASSIGNED_TO) != 0 ? KNOWN_USER_SQL : "")
+                            + ((fields & Task.MANAGER) != 0 ? KNOWN_USER_SQL : ""));
+
+            try (Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = bindChanged(statement, dirty, task.getTitle(), task.getDescription(), task.getStatus(),
+                        task.getAssignedTo(), task.getManager(), task.getFeedback());
+                statement.setInt(index++, task.getTaskId());
+                statement.setInt(index++, task.getVersion());
+                if ((dirty & Task.STATUS) != 0) {
+                    statement.setInt(index++, task.getStatus().getAllowedFromMask());
+                }
+                if ((dirty & Task.ASSIGNED_TO) != 0) {
+                    statement.setString(index++, task.getAssignedTo());
+                    statement.setString(index++, task.getAssignedTo());
+                }
+                if ((dirty & Task.MANAGER) != 0) {
+                    statement.setString(index++, task.getManager());
+                    statement.setString(index, task.getManager());
+                }
+                int rowsUpdated = statement.executeUpdate();
+                QueryMetrics.addRows(rowsUpdated);
+                if (rowsUpdated > 0) {
+                    task.setVersion(task.getVersion() + 1);
+                    task.markClean();
+                    System.out.println("Task updated successfully.");
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.UPDATED, task.getTaskId(), task);
+                    return UpdateResult.UPDATED;
+                }
+                Integer version = currentVersion(connection, "SELECT version FROM task WHERE task_id = ?",
+                        task.getTaskId());
+                if (version == null) {
+                    System.out.println("Updating task failed, task no longer exists.");
+                    return UpdateResult.NOT_FOUND;
                 }
+                if (version == task.getVersion()) {
+                    System.out.println("Updating task failed, it cannot move to " + task.getStatus()
+                            + " or its assignee or manager is not a user.");
+                    return UpdateResult.FAILED;
+                }
+                System.out.println("Task was changed by someone else, not updated.");
+                return UpdateResult.CONFLICT;
+            } catch (SQLException e) {
+                reportError("Error updating task", e);
+                return UpdateResult.FAILED;
             }
-        } catch (SQLException e) {
-            System.err.println("Error retrieving data: " + e.getMessage());
-        }
-        return tasks;
+        });
+    }
+
+    public static Task getTask(int taskId) {
+        return QueryMetrics.time("getTask", () -> {
+            String sql = "SELECT * FROM task_with_names WHERE task_id = ?";
+
+            try {
+                return queryOne(sql, RowMappers.TASK, taskId);
+            } catch (SQLException e) {
+                reportError("Error retrieving data", e);
+            }
+            return null;
+        });
+    }
+
+    public static List<Task> getEmployeeTasks(String username) {
+        return QueryMetrics.time("getEmployeeTasks", () -> {
+            String sql = "SELECT * FROM task_with_names WHERE assigned_to_id = " + USER_ID_SQL;
+
+            try {
+                return queryList(sql, RowMappers.TASK, username);
+            } catch (SQLException e) {
+                reportError("Error retrieving data", e);
+            }
+            return new ArrayList<>();
+        });
     }
 
     public static List<Task> getManagerTasks(String username) {
-        List<Task> tasks = new ArrayList<>();
-        String sql = "SELECT * FROM task WHERE LOWER(manager) = LOWER(?)";
+        return QueryMetrics.time("getManagerTasks", () -> {
+            String sql = "SELECT * FROM task_with_names WHERE manager_id = " + USER_ID_SQL;
 
-        try (
-                Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);) {
-            statement.setString(1, username);
+            try {
+                return queryList(sql, RowMappers.TASK, username);
+            } catch (SQLException e) {
+                reportError("Error retrieving data", e);
+            }
+            return new ArrayList<>();
+        });
+    }
 
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    int id = resultSet.getInt("task_id");
-                    String title = resultSet.getString("title");
-                    String description = resultSet.getString("description");
-                    String status = resultSet.getString("status");
-                    String assignedTo = resultSet.getString("assigned_to");
-                    String manager = resultSet.getString("manager");
-                    String feedback = resultSet.getString("feedback");
-                    tasks.add(new Task(id, title, description, status, assignedTo, manager, feedback));
+    // The whole employee dashboard in one round trip: tasks the user manages, then the assigned
+    // or accepted tasks assigned to them (minus ones they also manage), tagged with the section
+    // they belong in
+    public static EmployeeDashboard getEmployeeDashboard(String username) {
+        return QueryMetrics.time("getEmployeeDashboard", () -> {
+            String sql = "SELECT task_id, title, description, status, assigned_to, manager, feedback, version, "
+                    + EmployeeDashboard.MANAGER + " AS section FROM task_with_names WHERE manager_id = " + USER_ID_SQL
+                    + " "
+                    + "UNION ALL "
+                    + "SELECT task_id, title, description, status, assigned_to, manager, feedback, version, "
+                    + "CASE WHEN status = " + TaskStatus.ACCEPTED.getCode() + " THEN " + EmployeeDashboard.ACCEPTED
+                    + " ELSE " + EmployeeDashboard.INCOMING + " END FROM task_with_names "
+                    + "WHERE assigned_to_id = " + USER_ID_SQL + " AND status IN (" + TaskStatus.ASSIGNED.getCode()
+                    + ", " + TaskStatus.ACCEPTED.getCode() + ") AND manager_id IS NOT assigned_to_id";
+            EmployeeDashboard dashboard = new EmployeeDashboard();
+
+            try (
+                    Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql);) {
+                bind(statement, username, username);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    RowMapper<Task> mapper = null;
+                    int section = 0;
+                    while (resultSet.next()) {
+                        if (mapper == null) {
+                            mapper = RowMappers.forQuery(sql, resultSet, RowMappers.TASK);
+                            section = resultSet.findColumn("section");
+                        }
+                        dashboard.add(resultSet.getInt(section), mapper.mapRow(resultSet));
+                        QueryMetrics.addRows(1);
+                    }
                 }
+            } catch (SQLException e) {
+                reportError("Error retrieving data", e);
             }
-        } catch (SQLException e) {
-            System.err.println("Error retrieving data: " + e.getMessage());
-        }
-        return tasks;
+            return dashboard;
+        });
     }
 
     public static boolean deleteTask(int taskId) {
-        String sql = "DELETE FROM task WHERE task_id = ?";
+        return QueryMetrics.time("deleteTask", () -> {
+            String sql = "DELETE FROM task WHERE task_id = ?";
 
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, taskId);
+            try (Connection connection = getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, taskId);
 
-            int rowsDeleted = statement.executeUpdate();
-            if (rowsDeleted > 0) {
-                System.out.println("Task deleted successfully!");
-                return true;
-            } else {
-                System.out.println("No task was deleted.");
+                int rowsDeleted = statement.executeUpdate();
+                QueryMetrics.addRows(rowsDeleted);
+                if (rowsDeleted > 0) {
+                    System.out.println("Task deleted successfully!");
+                    fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.DELETED, taskId, null);
+                    return true;
+                } else {
+                    System.out.println("No task was deleted.");
+                    return false;
+                }
+            } catch (SQLException e) {
+                reportError("Error deleting task", e);
                 return false;
             }
-        } catch (SQLException e) {
-            System.err.println("Error deleting task: " + e.getMessage());
-            return false;
-        }
+        });
     }
 
     // Talk about this with Taiwo and Ryan again
     //
     public static Object[][] getAllTasks() {
-        String sql = "SELECT * FROM task";
-        List<Object[]> taskList = new ArrayList<>();
-
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);
-                ResultSet resultSet = statement.executeQuery()) {
-
-            while (resultSet.next()) {
-                Object[] row = new Object[6];
-                row[0] = resultSet.getInt("task_id");
-                row[1] = resultSet.getString("title");
-                row[2] = resultSet.getString("description");
-                row[3] = resultSet.getString("status");
-                row[4] = resultSet.getString("assigned_to");
-                row[5] = resultSet.getString("manager");
-                taskList.add(row);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error retrieving tasks: " + e.getMessage());
-        }
+        return QueryMetrics.time("getAllTasks", () -> {
+            String sql = "SELECT task_id, title, description, status, assigned_to, manager FROM task_with_names";
 
-        return taskList.toArray(new Object[0][]);
+            try {
+                return queryList(sql, RowMappers.TASK_ROW).toArray(new Object[0][]);
+            } catch (SQLException e) {
+                reportError("Error retrieving tasks", e);
+            }
+            return new Object[0][];
+        });
     }
 
     public static List<String> getEmployeeUsernames() {
-        List<String> usernames = new ArrayList<>();
+        return QueryMetrics.time("getEmployeeUsernames", () -> {
+            List<String> usernames = usernameListCache.get(EMPLOYEE_USERNAMES_KEY, key -> loadEmployeeUsernames());
+            return usernames == null ? new ArrayList<>() : new ArrayList<>(usernames);
+        });
+    }
+
+    private static List<String> loadEmployeeUsernames() {
         String sql = "SELECT username FROM user WHERE role != 'HR'";
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);
-                ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                usernames.add(resultSet.getString("username"));
-            }
+
+        try {
+            return Collections.unmodifiableList(queryList(sql, RowMappers.FIRST_STRING));
         } catch (SQLException e) {
-            System.err.println("Error fetching usernames: " + e.getMessage());
+            reportError("Error fetching usernames", e);
         }
-        return usernames;
+        return null;
     }
 
     public static Object[][] getAllEmployees() {
-        List<Object[]> list = new ArrayList<>();
-        String sql = "SELECT username, first_name, last_name, email, role, department, job_title FROM user WHERE role != 'HR'"; // Exclude HR from the list
-
-        try (Connection connection = DriverManager.getConnection(url);
-                PreparedStatement statement = connection.prepareStatement(sql);
-                ResultSet resultSet = statement.executeQuery()) {
-
-            while (resultSet.next()) {
-                Object[] row = new Object[7]; // Create an array to hold the data for one row
-                row[0] = resultSet.getString("username");
-                row[1] = resultSet.getString("first_name");
-                row[2] = resultSet.getString("last_name");
-                row[3] = resultSet.getString("email");
-                row[4] = resultSet.getString("role");
-                row[5] = resultSet.getString("department");
-                row[6] = resultSet.getString("job_title");
-                list.add(row); // Add the row to the list
+        return QueryMetrics.time("getAllEmployees", () -> {
+            String sql = "SELECT username, first_name, last_name, email, role, department, job_title FROM user WHERE role != 'HR'"; // Exclude HR from the list
+
+            try {
+                return queryList(sql, RowMappers.ARRAY).toArray(new Object[0][]);
+            } catch (SQLException e) {
+                reportError("Error retrieving employee data", e);
             }
-        } catch (SQLException e) {
-            System.err.println("Error retrieving employee data: " + e.getMessage());
-        }
+            return new Object[0][];
+        });
+    }
+
+    // Counts come from the trigger-maintained counters (see TaskCounters): one row per
+    // department instead of a scan of every task
+    public static int countTasksWithStatus(TaskStatus status) {
+        return QueryMetrics.time("countTasksWithStatus", () -> {
+            String sql = "SELECT COALESCE(SUM(count), 0) FROM task_count_by_department WHERE status = ?";
+
+            try {
+                Integer count = queryOne(sql, RowMappers.FIRST_INT, status.getCode());
+                return count == null ? 0 : count;
+            } catch (SQLException e) {
+                reportError("Error counting tasks", e);
+            }
+            return 0;
+        });
+    }
+
+    public static TaskSummary getTaskSummary() {
+        return QueryMetrics.time("getTaskSummary", () -> {
+            TaskSummary summary = new TaskSummary();
+            try {
+                for (Object[] row : queryList("SELECT department, status, count FROM task_count_by_department "
+                        + "WHERE count <> 0", RowMappers.ARRAY)) {
+                    summary.addDepartment((String) row[0], TaskStatus.fromCode(((Number) row[1]).intValue()),
+                            ((Number) row[2]).intValue());
+                }
+                for (Object[] row : queryList("SELECT u.username, e.status, e.count FROM task_count_by_employee e "
+                        + "JOIN user u ON u.user_id = e.user_id WHERE e.count <> 0", RowMappers.ARRAY)) {
+                    summary.addEmployee((String) row[0], TaskStatus.fromCode(((Number) row[1]).intValue()),
+                            ((Number) row[2]).intValue());
+                }
+            } catch (SQLException e) {
+                reportError("Error retrieving task summary", e);
+            }
+            return summary;
+        });
+    }
+
+    // Keyset pagination for the HR grids: the first key of every page, then one page from a key
+
+    public static List<Integer> getTaskPageKeys(int pageSize) {
+        return QueryMetrics.time("getTaskPageKeys", () -> {
+            String sql = "SELECT task_id FROM (SELECT task_id, ROW_NUMBER() OVER (ORDER BY task_id) AS rn FROM task) "
+                    + "WHERE (rn - 1) % ? = 0 ORDER BY task_id";
+
+            try {
+                return queryList(sql, RowMappers.FIRST_INT, pageSize);
+            } catch (SQLException e) {
+                reportError("Error retrieving task pages", e);
+            }
+            return new ArrayList<>();
+        });
+    }
 
-        // Convert the list of Object arrays to a 2D Object array
-        return list.toArray(new Object[0][]);
+    public static Object[][] getTaskPage(int fromTaskId, int limit) {
+        return QueryMetrics.time("getTaskPage", () -> {
+            String sql = "SELECT task_id, title, description, status, assigned_to, manager FROM task_with_names "
+                    + "WHERE task_id >= ? ORDER BY task_id LIMIT ?";
+
+            try {
+                return queryList(sql, RowMappers.TASK_ROW, fromTaskId, limit).toArray(new Object[0][]);
+            } catch (SQLException e) {
+                reportError("Error retrieving tasks", e);
+            }
+            return new Object[0][];
+        });
+    }
+
+    public static Object[] getTaskRow(int taskId) {
+        return QueryMetrics.time("getTaskRow", () -> {
+            String sql = "SELECT task_id, title, description, status, assigned_to, manager FROM task_with_names "
+                    + "WHERE task_id = ?";
+
+            try {
+                return queryOne(sql, RowMappers.TASK_ROW, taskId);
+            } catch (SQLException e) {
+                reportError("Error retrieving task", e);
+            }
+            return null;
+        });
+    }
+
+    public static int countTasks() {
+        return QueryMetrics.time("countTasks", () -> {
+            String sql = "SELECT COALESCE(SUM(count), 0) FROM task_count_by_department";
+
+            try {
+                Integer count = queryOne(sql, RowMappers.FIRST_INT);
+                return count == null ? 0 : count;
+            } catch (SQLException e) {
+                reportError("Error counting tasks", e);
+            }
+            return 0;
+        });
+    }
+
+    public static List<String> getEmployeePageKeys(int pageSize) {
+        return QueryMetrics.time("getEmployeePageKeys", () -> {
+            String sql = "SELECT username FROM (SELECT username, ROW_NUMBER() OVER (ORDER BY username) AS rn "
+                    + "FROM user WHERE role != 'HR') WHERE (rn - 1) % ? = 0 ORDER BY username";
+
+            try {
+                return queryList(sql, RowMappers.FIRST_STRING, pageSize);
+            } catch (SQLException e) {
+                reportError("Error retrieving employee pages", e);
+            }
+            return new ArrayList<>();
+        });
+    }
+
+    public static Object[][] getEmployeePage(String fromUsername, int limit) {
+        return QueryMetrics.time("getEmployeePage", () -> {
+            String sql = "SELECT username, first_name, last_name, email, role, department, job_title FROM user "
+                    + "WHERE role != 'HR' AND username >= ? ORDER BY username LIMIT ?";
+
+            try {
+                return queryList(sql, RowMappers.ARRAY, fromUsername, limit).toArray(new Object[0][]);
+            } catch (SQLException e) {
+                reportError("Error retrieving employee data", e);
+            }
+            return new Object[0][];
+        });
     }
 
-}
\ No newline at end of file
+    public static Object[] getEmployeeRow(String username) {
+        return QueryMetrics.time("getEmployeeRow", () -> {
+            String sql = "SELECT username, first_name, last_name, email, role, department, job_title FROM user "
+                    + "WHERE role != 'HR' AND username = ?";
+
+            try {
+                return queryOne(sql, RowMappers.ARRAY, username);
+            } catch (SQLException e) {
+                reportError("Error retrieving employee data", e);
+            }
+            return null;
+        });
+    }
+
+    public static int countEmployees() {
+        return QueryMetrics.time("countEmployees", () -> {
+            String sql = "SELECT COUNT(*) FROM user WHERE role != 'HR'";
+
+            try {
+                Integer count = queryOne(sql, RowMappers.FIRST_INT);
+                return count == null ? 0 : count;
+            } catch (SQLException e) {
+                reportError("Error counting employees", e);
+            }
+            return 0;
+        });
+    }
+
+    // Ranked full-text search over task title, description and feedback. Title matches
+    // weigh most. Each word of the query is matched as a prefix, and all words must match.
+    public static Object[][] searchTasks(String query, int limit, int offset) {
+        return QueryMetrics.time("searchTasks", () -> {
+            String match = toFtsQuery(query);
+            if (match.isEmpty()) {
+                return new Object[0][];
+            }
+            String sql = "SELECT t.task_id, t.title, t.description, t.status, t.assigned_to, t.manager "
+                    + "FROM task_fts JOIN task_with_names t ON t.task_id = task_fts.rowid "
+                    + "WHERE task_fts MATCH ? ORDER BY bm25(task_fts, 10.0, 3.0, 1.0) LIMIT ? OFFSET ?";
+
+            try {
+                return queryList(sql, RowMappers.TASK_ROW, match, limit, offset).toArray(new Object[0][]);
+            } catch (SQLException e) {
+                reportError("Error searching tasks", e);
+            }
+            return new Object[0][];
+        });
+    }
+
+    // Turns free text into an FTS5 query: every word becomes a quoted prefix term, so
+    // punctuation in the search box can never produce an FTS syntax error
+    private static String toFtsQuery(String text) {
+        StringBuilder match = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append('"').append(word).append("\"*");
+            }
+        }
+        return match.toString();
+    }
+}
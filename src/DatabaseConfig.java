@@ -0,0 +1,136 @@
+package src;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// Where the database lives and how its connections are tuned. Loaded from database.properties
+// in the working directory (or the file named by -Ddatabase.config), then overridden by
+// system properties with the same keys:
+//
+//   database.engine=sqlite                 sqlite | memory, see Repositories
+//   database.path=databases/database.db
+//   database.profile=balanced              durable | balanced | throughput, see StorageProfile
+//   database.pragma.cache_size=-32000      overrides a single PRAGMA of the profile
+//
+// Every profile also turns on foreign_keys, so tasks cannot point at users that do not exist.
+public class DatabaseConfig {
+    public static final String CONFIG_FILE_PROPERTY = "database.config";
+    public static final String DEFAULT_CONFIG_FILE = "database.properties";
+    public static final String DEFAULT_PATH = "databases/database.db";
+    public static final StorageProfile DEFAULT_PROFILE = StorageProfile.BALANCED;
+
+    // Where the repositories keep their data: the SQLite file, or memory only (nothing saved).
+    // MEMORY is for trying the app out; HR Export and Off-board Team need SQLITE, see Repositories
+    public enum Engine {
+        SQLITE, MEMORY
+    }
+
+    private static final String ENGINE_KEY = "database.engine";
+    private static final String PATH_KEY = "database.path";
+    private static final String PROFILE_KEY = "database.profile";
+    private static final String PRAGMA_PREFIX = "database.pragma.";
+
+    private final Engine engine;
+    private final String path;
+    private final StorageProfile profile;
+    private final Map<String, String> pragmaOverrides;
+
+    public DatabaseConfig(Engine engine, String path, StorageProfile profile, Map<String, String> pragmaOverrides) {
+        this.engine = engine;
+        this.path = path;
+        this.profile = profile;
+        this.pragmaOverrides = Collections.unmodifiableMap(new LinkedHashMap<>(pragmaOverrides));
+    }
+
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        Path file = Paths.get(System.getProperty(CONFIG_FILE_PROPERTY, DEFAULT_CONFIG_FILE));
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Error reading " + file + ": " + e.getMessage());
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("database.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+        return fromProperties(properties);
+    }
+
+    public static DatabaseConfig fromProperties(Properties properties) {
+        String engineName = properties.getProperty(ENGINE_KEY, "sqlite").trim();
+        Engine engine;
+        try {
+            engine = Engine.valueOf(engineName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Unknown database.engine '" + engineName + "', expected sqlite or memory");
+        }
+        String path = properties.getProperty(PATH_KEY, DEFAULT_PATH).trim();
+        String profileName = properties.getProperty(PROFILE_KEY);
+        StorageProfile profile = profileName == null ? DEFAULT_PROFILE : StorageProfile.fromName(profileName);
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PRAGMA_PREFIX)) {
+                String pragma = key.substring(PRAGMA_PREFIX.length());
+                if (!pragma.matches("[a-z_]+")) {
+                    throw new IllegalArgumentException("Invalid PRAGMA name: " + key);
+                }
+                overrides.put(pragma, properties.getProperty(key).trim());
+            }
+        }
+        return new DatabaseConfig(engine, path, profile, overrides);
+    }
+
+    public DatabaseConfig withEngine(Engine engine) {
+        return new DatabaseConfig(engine, path, profile, pragmaOverrides);
+    }
+
+    public DatabaseConfig withPath(String path) {
+        return new DatabaseConfig(engine, path, profile, pragmaOverrides);
+    }
+
+    public DatabaseConfig withProfile(StorageProfile profile) {
+        return new DatabaseConfig(engine, path, profile, pragmaOverrides);
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getUrl() {
+        return "jdbc:sqlite:" + path;
+    }
+
+    public StorageProfile getProfile() {
+        return profile;
+    }
+
+    // The profile's PRAGMAs and foreign_keys, with any overrides applied, in the order they are run
+    public Map<String, String> getPragmas() {
+        Map<String, String> pragmas = new LinkedHashMap<>(profile.getPragmas());
+        pragmas.put("foreign_keys", "ON");
+        pragmas.putAll(pragmaOverrides);
+        return pragmas;
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseConfig{engine=" + engine.name().toLowerCase() + ", path=" + path + ", profile="
+                + profile.name().toLowerCase() + ", pragmas=" + getPragmas() + '}';
+    }
+}
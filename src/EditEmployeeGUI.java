@@ -6,6 +6,8 @@ import java.awt.event.ActionListener;
 
 public class EditEmployeeGUI extends JDialog {
     private User user;
+    // The user as it was when the form was filled, the base for merging after a conflict
+    private User original;
     private JTextField firstNameField, lastNameField, emailField, jobTitleField, departmentField;
     private JButton saveButton;
     private JButton cancelButton;
@@ -17,6 +19,9 @@ public class EditEmployeeGUI extends JDialog {
 
     private void createGUI(User user) {
         this.user = user;
+        this.original = new User(user);
+        // Only what is edited in this form counts as a change
+        original.markClean();
 
         setTitle("Edit Employee");
         setSize(400, 300);
@@ -82,14 +87,88 @@ public class EditEmployeeGUI extends JDialog {
     }
 
     private void updateEmployee() {
-        // Update the employee details
-        user.setFirstName(firstNameField.getText());
-        user.setLastName(lastNameField.getText());
-        user.setEmail(emailField.getText());
-        user.setJobTitle(jobTitleField.getText());
-        user.setDepartment(departmentField.getText());
-
-        Database.updateEmployee(user);
-        dispose();
+        User edited = new User(original);
+        edited.setFirstName(firstNameField.getText());
+        edited.setLastName(lastNameField.getText());
+        edited.setEmail(emailField.getText());
+        edited.setJobTitle(jobTitleField.getText());
+        edited.setDepartment(departmentField.getText());
+
+        saveButton.setEnabled(false);
+        save(edited);
+    }
+
+    // Same conflict handling as EditTaskGUI
+    private void save(User edited) {
+        AsyncDatabase.load(() -> Repositories.users().updateEmployee(edited), result -> {
+            switch (result) {
+                case UPDATED:
+                    user.setFirstName(edited.getFirstName());
+                    user.setLastName(edited.getLastName());
+                    user.setEmail(edited.getEmail());
+                    user.setJobTitle(edited.getJobTitle());
+                    user.setDepartment(edited.getDepartment());
+                    user.setVersion(edited.getVersion());
+                    user.markClean();
+                    dispose();
+                    break;
+                case CONFLICT:
+                    AsyncDatabase.load(() -> Repositories.users().getUserHR(edited.getUsername()),
+                            theirs -> merge(edited, theirs));
+                    break;
+                case NOT_FOUND:
+                    JOptionPane.showMessageDialog(this, "This employee has been deleted.");
+                    dispose();
+                    break;
+                default:
+                    JOptionPane.showMessageDialog(this, "Could not save the employee.");
+                    saveButton.setEnabled(true);
+            }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            saveButton.setEnabled(true);
+        });
+    }
+
+    private void merge(User edited, User theirs) {
+        if (theirs == null) {
+            JOptionPane.showMessageDialog(this, "This employee has been deleted.");
+            dispose();
+            return;
+        }
+        FieldMerge fields = new FieldMerge();
+        User merged = new User(theirs);
+        merged.setFirstName(fields.merge("First Name", original.getFirstName(), edited.getFirstName(),
+                theirs.getFirstName()));
+        merged.setLastName(fields.merge("Last Name", original.getLastName(), edited.getLastName(),
+                theirs.getLastName()));
+        merged.setEmail(fields.merge("Email", original.getEmail(), edited.getEmail(), theirs.getEmail()));
+        merged.setJobTitle(fields.merge("Job Title", original.getJobTitle(), edited.getJobTitle(),
+                theirs.getJobTitle()));
+        merged.setDepartment(fields.merge("Department", original.getDepartment(), edited.getDepartment(),
+                theirs.getDepartment()));
+        original = theirs;
+
+        if (!fields.hasConflicts()) {
+            save(merged);
+            return;
+        }
+        Object[] options = { "Keep mine", "Load theirs", "Cancel" };
+        int choice = JOptionPane.showOptionDialog(this,
+                "Someone else changed " + String.join(", ", fields.getConflicts()) + " while you were editing.",
+                "Employee changed", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE, null, options,
+                options[0]);
+        if (choice == 0) {
+            save(merged);
+            return;
+        }
+        // The form is now based on their version: show theirs, or the merge with mine kept
+        User shown = choice == 1 ? theirs : merged;
+        firstNameField.setText(shown.getFirstName());
+        lastNameField.setText(shown.getLastName());
+        emailField.setText(shown.getEmail());
+        jobTitleField.setText(shown.getJobTitle());
+        departmentField.setText(shown.getDepartment());
+        saveButton.setEnabled(true);
     }
 }
@@ -7,6 +7,8 @@ import java.awt.event.ActionListener;
 
 public class EditTaskGUI extends JDialog {
     private Task task;
+    // The task as it was when the form was filled, the base for merging after a conflict
+    private Task original;
     private JTextField titleField;
     private JTextArea descriptionArea;
     private JTextField assignedToField;
@@ -20,6 +22,9 @@ public class EditTaskGUI extends JDialog {
 
     private void createGUI(Task task) {
         this.task = task;
+        this.original = new Task(task);
+        // Only what is edited in this form counts as a change
+        original.markClean();
 
         setTitle("Edit Task");
         setSize(400, 300);
@@ -78,15 +83,82 @@ public class EditTaskGUI extends JDialog {
     }
 
     private void saveTask() {
-        // Update the task details
-        task.setTitle(titleField.getText());
-        task.setDescription(descriptionArea.getText());
-        task.setAssignedTo(assignedToField.getText());
+        Task edited = new Task(original);
+        edited.setTitle(titleField.getText());
+        edited.setDescription(descriptionArea.getText());
+        // Blank means unassigned; anything else must be an existing username
+        String assignedTo = assignedToField.getText().trim();
+        edited.setAssignedTo(assignedTo.isEmpty() ? null : assignedTo);
+
+        saveButton.setEnabled(false);
+        save(edited);
+    }
 
-        // Assuming a method to update the task in the database
-        Database.updateTask(task);
+    // Saves against the version the edit was based on; if someone else saved the task in the
+    // meantime, reloads it and merges instead of overwriting their change
+    private void save(Task edited) {
+        AsyncDatabase.load(() -> Repositories.tasks().updateTask(edited), result -> {
+            switch (result) {
+                case UPDATED:
+                    task.setTitle(edited.getTitle());
+                    task.setDescription(edited.getDescription());
+                    task.setAssignedTo(edited.getAssignedTo());
+                    task.setVersion(edited.getVersion());
+                    task.markClean();
+                    JOptionPane.showMessageDialog(this, "Task updated successfully!");
+                    dispose(); // Close the window after saving
+                    break;
+                case CONFLICT:
+                    AsyncDatabase.load(() -> Repositories.tasks().getTask(edited.getTaskId()),
+                            theirs -> merge(edited, theirs));
+                    break;
+                case NOT_FOUND:
+                    JOptionPane.showMessageDialog(this, "This task has been deleted.");
+                    dispose();
+                    break;
+                default:
+                    JOptionPane.showMessageDialog(this, "Could not save the task. Is the assignee an existing user?");
+                    saveButton.setEnabled(true);
+            }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            saveButton.setEnabled(true);
+        });
+    }
 
-        JOptionPane.showMessageDialog(this, "Task updated successfully!");
-        dispose(); // Close the window after saving
+    private void merge(Task edited, Task theirs) {
+        if (theirs == null) {
+            JOptionPane.showMessageDialog(this, "This task has been deleted.");
+            dispose();
+            return;
+        }
+        FieldMerge fields = new FieldMerge();
+        Task merged = new Task(theirs);
+        merged.setTitle(fields.merge("Title", original.getTitle(), edited.getTitle(), theirs.getTitle()));
+        merged.setDescription(fields.merge("Description", original.getDescription(), edited.getDescription(),
+                theirs.getDescription()));
+        merged.setAssignedTo(fields.merge("Assigned To", original.getAssignedTo(), edited.getAssignedTo(),
+                theirs.getAssignedTo()));
+        original = theirs;
+
+        if (!fields.hasConflicts()) {
+            save(merged);
+            return;
+        }
+        Object[] options = { "Keep mine", "Load theirs", "Cancel" };
+        int choice = JOptionPane.showOptionDialog(this,
+                "Someone else changed " + String.join(", ", fields.getConflicts()) + " while you were editing.",
+                "Task changed", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE, null, options,
+                options[0]);
+        if (choice == 0) {
+            save(merged);
+            return;
+        }
+        // The form is now based on their version: show theirs, or the merge with mine kept
+        Task shown = choice == 1 ? theirs : merged;
+        titleField.setText(shown.getTitle());
+        descriptionArea.setText(shown.getDescription());
+        assignedToField.setText(shown.getAssignedTo());
+        saveButton.setEnabled(true);
     }
 }
@@ -0,0 +1,63 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Everything the employee dashboard shows, already split into its three sections.
+// Filled by TaskRepository.getEmployeeDashboard (a single query for SQLite).
+public class EmployeeDashboard {
+    public static final int MANAGER = 0;
+    public static final int ACCEPTED = 1;
+    public static final int INCOMING = 2;
+
+    private final List<Task> managerTasks = new ArrayList<>();
+    private final List<Task> acceptedTasks = new ArrayList<>();
+    private final List<Task> incomingTasks = new ArrayList<>();
+
+    void add(int section, Task task) {
+        switch (section) {
+            case MANAGER:
+                managerTasks.add(task);
+                break;
+            case ACCEPTED:
+                acceptedTasks.add(task);
+                break;
+            default:
+                incomingTasks.add(task);
+                break;
+        }
+    }
+
+    public boolean isManager() {
+        return !managerTasks.isEmpty();
+    }
+
+    public List<Task> getManagerTasks() {
+        return Collections.unmodifiableList(managerTasks);
+    }
+
+    public List<Task> getAcceptedTasks() {
+        return Collections.unmodifiableList(acceptedTasks);
+    }
+
+    public List<Task> getIncomingTasks() {
+        return Collections.unmodifiableList(incomingTasks);
+    }
+
+    public int getManagerCount() {
+        return managerTasks.size();
+    }
+
+    public int getAcceptedCount() {
+        return acceptedTasks.size();
+    }
+
+    public int getIncomingCount() {
+        return incomingTasks.size();
+    }
+
+    public int getTotalCount() {
+        return managerTasks.size() + acceptedTasks.size() + incomingTasks.size();
+    }
+}
@@ -2,17 +2,24 @@ package src;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class EmployeeGUI extends JFrame {
     private JPanel mainPanel;
     private JPanel profilePanel;
-    private JPanel managerTasksPanel;
-    private JPanel acceptedTasksPanel;
-    private JPanel incomingTasksPanel;
     private User user;
     private boolean isManager = false;
 
+    // Each section is a JTable over a list model, so the number of Swing components
+    // stays the same however many tasks the user has
+    private TaskListTableModel managerTasks;
+    private TaskListTableModel acceptedTasks;
+    private TaskListTableModel incomingTasks;
+    // Tasks with a database call in flight; further clicks on them are ignored
+    private final Set<Task> busyTasks = new HashSet<>();
+
     public EmployeeGUI(User user) {
         this.user = user;
 
@@ -26,34 +33,47 @@ public class EmployeeGUI extends JFrame {
 
         loadProfile();
 
-        // Initialize task panels
-        JPanel tempPanel = new JPanel(new BorderLayout());
-
-        managerTasksPanel = new JPanel();
-        managerTasksPanel.setLayout(new BoxLayout(managerTasksPanel, BoxLayout.Y_AXIS));
-        managerTasksPanel.setBorder(BorderFactory.createTitledBorder("Manager"));
-
-        acceptedTasksPanel = new JPanel();
-        acceptedTasksPanel.setLayout(new BoxLayout(acceptedTasksPanel, BoxLayout.Y_AXIS));
-        acceptedTasksPanel.setBorder(BorderFactory.createTitledBorder("Accepted Tasks"));
-
-        incomingTasksPanel = new JPanel();
-        incomingTasksPanel.setLayout(new BoxLayout(incomingTasksPanel, BoxLayout.Y_AXIS));
-        incomingTasksPanel.setBorder(BorderFactory.createTitledBorder("Incoming Tasks"));
-
-        // Load tasks
-        loadTasks();
-
-        if (isManager) {
-            tempPanel.add(new JScrollPane(managerTasksPanel), BorderLayout.NORTH);
-            tempPanel.add(new JScrollPane(acceptedTasksPanel), BorderLayout.SOUTH);
-    
-            mainPanel.add(new JScrollPane(tempPanel), BorderLayout.CENTER);
-            mainPanel.add(new JScrollPane(incomingTasksPanel), BorderLayout.SOUTH);
-        } else {
-            mainPanel.add(new JScrollPane(acceptedTasksPanel), BorderLayout.CENTER);
-            mainPanel.add(new JScrollPane(incomingTasksPanel), BorderLayout.SOUTH);
-        }
+        // Initialize task sections
+        managerTasks = new TaskListTableModel(user.getUsername(), TaskListTableModel.Column.TITLE,
+                TaskListTableModel.Column.ASSIGNED_TO, TaskListTableModel.Column.ACTIONS);
+        acceptedTasks = new TaskListTableModel(user.getUsername(), TaskListTableModel.Column.TITLE,
+                TaskListTableModel.Column.ASSIGNED_BY, TaskListTableModel.Column.ACTIONS);
+        incomingTasks = new TaskListTableModel(user.getUsername(), TaskListTableModel.Column.TITLE,
+                TaskListTableModel.Column.ASSIGNED_BY, TaskListTableModel.Column.ACTIONS);
+
+        JScrollPane managerSection = createSection("Manager", managerTasks,
+                TaskActionsCell.of("Edit", this::editTask));
+        JScrollPane acceptedSection = createSection("Accepted Tasks", acceptedTasks,
+                TaskActionsCell.of("Feedback", task -> showFeedback(task.getFeedback()), "Complete",
+                        this::completeTask));
+        JScrollPane incomingSection = createSection("Incoming Tasks", incomingTasks,
+                TaskActionsCell.of("Accept", this::acceptTask, "Reject", this::rejectTask));
+
+        JLabel loadingLabel = new JLabel("Loading tasks...", SwingConstants.CENTER);
+        mainPanel.add(loadingLabel, BorderLayout.CENTER);
+
+        // Load tasks in the background and lay out the sections once we know whether this user manages anyone
+        AsyncDatabase.load(() -> Repositories.tasks().getEmployeeDashboard(user.getUsername()), dashboard -> {
+            mainPanel.remove(loadingLabel);
+            showTasks(dashboard);
+
+            if (isManager) {
+                JPanel tempPanel = new JPanel(new GridLayout(2, 1));
+                tempPanel.add(managerSection);
+                tempPanel.add(acceptedSection);
+
+                mainPanel.add(tempPanel, BorderLayout.CENTER);
+                mainPanel.add(incomingSection, BorderLayout.SOUTH);
+            } else {
+                mainPanel.add(acceptedSection, BorderLayout.CENTER);
+                mainPanel.add(incomingSection, BorderLayout.SOUTH);
+            }
+            mainPanel.validate();
+            mainPanel.repaint();
+        }, error -> {
+            loadingLabel.setText("Could not load tasks.");
+            AsyncDatabase.showError(this, error);
+        });
 
         // Setting custom logo
         ImageIcon icon = new ImageIcon("images/logo.png");
@@ -62,6 +82,19 @@ public class EmployeeGUI extends JFrame {
         setVisible(true);
     }
 
+    private JScrollPane createSection(String title, TaskListTableModel model, TaskActionsCell actions) {
+        JTable table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        actions.install(table, model.actionColumn());
+        table.getColumnModel().getColumn(model.actionColumn()).setPreferredWidth(220);
+        table.setPreferredScrollableViewportSize(new Dimension(500, table.getRowHeight() * 6));
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createTitledBorder(title));
+        return scrollPane;
+    }
+
     private void loadProfile() {
         profilePanel = new JPanel();
         profilePanel.setLayout(new BoxLayout(profilePanel, BoxLayout.Y_AXIS));
@@ -83,91 +116,69 @@ public class EmployeeGUI extends JFrame {
         mainPanel.add(profilePanel, BorderLayout.WEST);
     }
 
-    private void loadTasks() {
-        List<Task> tasks = Database.getManagerTasks(user.getUsername());
-        if (tasks.size() > 0) isManager = true;
-        tasks.addAll(Database.getEmployeeTasks(user.getUsername()));
+    private void showTasks(EmployeeDashboard dashboard) {
+        isManager = dashboard.isManager();
+        managerTasks.setTasks(dashboard.getManagerTasks());
+        acceptedTasks.setTasks(dashboard.getAcceptedTasks());
+        incomingTasks.setTasks(dashboard.getIncomingTasks());
+    }
 
-        for (Task task : tasks) {
-            if (task.getManager().equals(user.getUsername())) {
-                addTaskToPanel(task, managerTasksPanel, false);
-            } else if (task.getStatus().equals("Accepted")) {
-                addTaskToPanel(task, acceptedTasksPanel, true);
+    private void acceptTask(Task task) {
+        if (!busyTasks.add(task)) {
+            return;
+        }
+        updateTaskStatus(task, TaskStatus.ACCEPTED, updated -> {
+            busyTasks.remove(task);
+            incomingTasks.removeTask(task);
+            if (updated) {
+                task.setStatus(TaskStatus.ACCEPTED);
+                task.markClean();
+                acceptedTasks.addTask(task);
             } else {
-                addTaskToPanel(task, incomingTasksPanel, false);
+                // Deleted, or moved on by someone else; the next refresh shows where it went
+                JOptionPane.showMessageDialog(this, "This task can no longer be accepted.");
             }
-        }
+        });
     }
 
-    private void addTaskToPanel(Task task, JPanel panel, boolean isAccepted) {
-        JPanel taskPanel = new JPanel();
-        taskPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
-
-        taskPanel.add(new JLabel("Title: " + task.getTitle()));
-        if (task.getManager().equals(user.getUsername())) {
-            taskPanel.add(new JLabel("Assigned By: " + "HR"));
-        } else {
-            taskPanel.add(new JLabel("Assigned By: " + task.getManager()));
+    private void rejectTask(Task task) {
+        if (!busyTasks.add(task)) {
+            return;
         }
-        
-
-        if (isAccepted) {
-            JButton completeButton = new JButton("Complete");
-            completeButton.addActionListener(e -> {
-                deleteTask(task.getTaskId());
-                panel.remove(taskPanel);
-                panel.revalidate();
-                panel.repaint();
-            });
-            JButton feedbackButton = new JButton("Feedback");
-            feedbackButton.addActionListener(e -> showFeedback(task.getFeedback()));
-
-            taskPanel.add(feedbackButton);
-            taskPanel.add(completeButton);
-        } else if (task.getManager().equals(user.getUsername())) {
-            JButton editButton = new JButton("Edit");
-            editButton.addActionListener(e -> {
-                editTask(task);
-            });
-            String assignedTo = task.getAssignedTo();
-            if (assignedTo == null || assignedTo.isBlank()) {
-                assignedTo = "N/A";
+        updateTaskStatus(task, TaskStatus.REJECTED, updated -> {
+            busyTasks.remove(task);
+            incomingTasks.removeTask(task);
+            if (!updated) {
+                JOptionPane.showMessageDialog(this, "This task can no longer be rejected.");
             }
-            taskPanel.add(new JLabel("Assigned To: " + assignedTo));
-            taskPanel.add(editButton);
-        } else {
-            JButton acceptButton = new JButton("Accept");
-            JButton rejectButton = new JButton("Reject");
-            acceptButton.addActionListener(e -> {
-                updateTaskStatus(task.getTaskId(), "Accepted");
-                panel.remove(taskPanel);
-                addTaskToPanel(task, acceptedTasksPanel, true);
-                acceptedTasksPanel.revalidate();
-                acceptedTasksPanel.repaint();
-                panel.revalidate();
-                panel.repaint();
-                mainPanel.revalidate();
-                mainPanel.repaint();
-            });
-            rejectButton.addActionListener(e -> {
-                deleteTask(task.getTaskId());
-                panel.remove(taskPanel);
-                panel.revalidate();
-                panel.repaint();
-            });
-            taskPanel.add(acceptButton);
-            taskPanel.add(rejectButton);
-        }
+        });
+    }
 
-        panel.add(taskPanel);
+    private void completeTask(Task task) {
+        if (!busyTasks.add(task)) {
+            return;
+        }
+        updateTaskStatus(task, TaskStatus.COMPLETED, updated -> {
+            busyTasks.remove(task);
+            acceptedTasks.removeTask(task);
+            if (!updated) {
+                JOptionPane.showMessageDialog(this, "This task can no longer be completed.");
+            }
+        });
     }
 
-    private void deleteTask(int taskId) {
-        Database.deleteTask(taskId);
+    // Accept, Reject and Complete all go through the group-commit write queue, so many employees
+    // clicking at once share commits, and the move is only made if the task's current status
+    // allows it (see TaskStatus). onDone gets false if it did not; it runs on the EDT once the
+    // change is committed. If the write fails the task is left where it is and can be tried again.
+    private void updateTaskStatus(Task task, TaskStatus status, Consumer<Boolean> onDone) {
+        AsyncDatabase.loadQueued(() -> Repositories.tasks().queueStatusChange(task.getTaskId(), status), onDone,
+                error -> writeFailed(task, error));
     }
 
-    private void updateTaskStatus(int taskId, String status) {
-        Database.updateTaskStatus(taskId, status);
+    private void writeFailed(Task task, Throwable error) {
+        busyTasks.remove(task);
+        AsyncDatabase.showError(this, error);
     }
 
     private void showFeedback(String feedback) {
@@ -179,18 +190,8 @@ public class EmployeeGUI extends JFrame {
     }
 
     private void editTask(Task task) {
+        // The dialog is modal and edits the task in place, so only its row needs repainting
         new EditTaskGUI(this, "Edit Task", true, task);
-        managerTasksPanel.removeAll();
-        reloadManagerTasks();
-        managerTasksPanel.revalidate();
-        managerTasksPanel.repaint();
-    }
-
-    private void reloadManagerTasks() {
-        List<Task> tasks = Database.getManagerTasks(user.getUsername());
-
-        for (Task task : tasks) {
-            addTaskToPanel(task, managerTasksPanel, false);
-        }
+        managerTasks.taskChanged(task);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,454 @@
+package src;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory search index over every employee who is not HR, for the type-ahead pickers
+// (EmployeePicker). Built from getAllEmployees and kept current from USER change events, so
+// lookups never touch the database.
+//
+// Two indexes, both from lower-cased tokens to sorted int sets of entry ids:
+// - prefix: the username, first name, last name, full name (both ways round) and whole email,
+//   in TreeMaps so every token starting with the query is one subMap walk. Name tokens rank
+//   above email tokens.
+// - trigram: three-letter pieces of each name and of the email's local part (padded with a
+//   space either side, like pg_trgm), to find near misses such as "smiht" when no prefix
+//   matches are left.
+// Reads share a read lock; changes and the swap after a rebuild take the write lock.
+public class EmployeeIndex implements DataChangeListener {
+    public static final int DEFAULT_LIMIT = 10;
+
+    // Share of the query's trigrams an employee must have to count as a fuzzy match
+    private static final double MIN_TRIGRAM_SHARE = 0.34;
+
+    // Most entries a multi-word prefix walk looks at before giving up on finding more; the
+    // full-name tokens already answer the usual "first last" queries directly
+    private static final int MAX_PREFIX_SCAN = 1000;
+
+    // Per-thread trigram counters, indexed by entry id and left zeroed after each search
+    private static final ThreadLocal<int[]> SHARED_TRIGRAMS = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final UserRepository users;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Entry[] entries = new Entry[1024];
+    // Distinct trigrams per entry id; among equally good fuzzy matches the shorter name wins
+    private int[] trigramCounts = new int[1024];
+    private int nextId = 0;
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final Map<String, Integer> idsByUsername = new HashMap<>();
+    private final TreeMap<String, IntSet> nameTokens = new TreeMap<>();
+    private final TreeMap<String, IntSet> emailTokens = new TreeMap<>();
+    private final Map<Long, IntSet> trigrams = new HashMap<>();
+
+    // Events that arrive while reload is reading the table, replayed once it swaps in
+    private List<DataChangeEvent> pending;
+
+    // One employee as shown in a picker
+    public static final class Entry {
+        private final String username;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        // Lower-cased name tokens and email, worked out once for multi-word matching
+        private final List<String> tokens;
+        private final String foldedEmail;
+
+        public Entry(String username, String firstName, String lastName, String email) {
+            this.username = username;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.tokens = nameTokens(username, firstName, lastName);
+            this.foldedEmail = email == null || email.isEmpty() ? null : fold(email);
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(username);
+            String name = ((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)).trim();
+            if (!name.isEmpty()) {
+                text.append(" - ").append(name);
+            }
+            if (email != null && !email.isEmpty()) {
+                text.append(" <").append(email).append('>');
+            }
+            return text.toString();
+        }
+    }
+
+    public EmployeeIndex(UserRepository users) {
+        this.users = users;
+    }
+
+    // Re-reads every employee from the repository and swaps the new index in. Changes made
+    // while the table is being read are applied again afterwards, so none are lost.
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Object[][] rows = users.getAllEmployees();
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Object[] row : rows) {
+                put(new Entry((String) row[0], (String) row[1], (String) row[2], (String) row[3]));
+            }
+            for (DataChangeEvent event : pending) {
+                apply(event);
+            }
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void dataChanged(DataChangeEvent event) {
+        if (event.getEntity() != DataChangeEvent.Entity.USER) {
+            return;
+        }
+        if (event.getType() == DataChangeEvent.Type.RELOADED) {
+            AsyncDatabase.run(this::reload);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock. Removing then re-adding makes replays harmless.
+    private void apply(DataChangeEvent event) {
+        switch (event.getType()) {
+            case INSERTED:
+            case UPDATED:
+                User user = (User) event.getRow();
+                if (user == null) {
+                    return;
+                }
+                remove(user.getUsername());
+                if (!"HR".equals(user.getRole())) {
+                    put(new Entry(user.getUsername(), user.getFirstName(), user.getLastName(), user.getEmail()));
+                }
+                break;
+            case DELETED:
+                remove((String) event.getKey());
+                break;
+            default:
+                break;
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idsByUsername.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The employee with exactly this username (ignoring case), or null
+    public Entry get(String username) {
+        if (username == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Integer id = idsByUsername.get(fold(username));
+            return id == null ? null : entries[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit employees matching the query, best first:
+    // 1. every word of the query starts a name token (username, first or last name),
+    // 2. the query as typed starts the email,
+    // 3. fuzzy matches by shared trigrams, most shared first.
+    // Within 1 and 2 the order is that of the matched token, so an exact match comes first.
+    public List<Entry> search(String query, int limit) {
+        List<String> words = words(query);
+        List<Entry> results = new ArrayList<>();
+        if (words.isEmpty() || limit <= 0) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            Set<Integer> found = new LinkedHashSet<>();
+            if (words.size() > 1) {
+                addPrefixMatches(nameTokens, String.join(" ", words), List.of(), limit, found);
+            }
+            addPrefixMatches(nameTokens, longest(words), words, limit, found);
+            addPrefixMatches(emailTokens, fold(query.trim()), List.of(), limit, found);
+            if (found.size() < limit) {
+                addTrigramMatches(words, limit, found);
+            }
+            for (int id : found) {
+                results.add(entries[id]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    // Walks the tokens starting with prefix in order, keeping entries where every other query
+    // word also starts one of their tokens
+    private void addPrefixMatches(TreeMap<String, IntSet> tokens, String prefix, List<String> words, int limit,
+            Set<Integer> found) {
+        int scanned = 0;
+        for (IntSet ids : tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < ids.size(); i++) {
+                if (found.size() == limit || words.size() > 1 && ++scanned > MAX_PREFIX_SCAN) {
+                    return;
+                }
+                int id = ids.get(i);
+                if (!found.contains(id) && (words.size() <= 1 || matchesAll(entries[id], words))) {
+                    found.add(id);
+                }
+            }
+        }
+    }
+
+    // The longest word has the fewest tokens starting with it
+    private static String longest(List<String> words) {
+        String longest = words.get(0);
+        for (String word : words) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        return longest;
+    }
+
+    private static boolean matchesAll(Entry entry, List<String> words) {
+        for (String word : words) {
+            boolean matched = entry.foldedEmail != null && entry.foldedEmail.startsWith(word);
+            for (int i = 0; i < entry.tokens.size() && !matched; i++) {
+                matched = entry.tokens.get(i).startsWith(word);
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addTrigramMatches(List<String> words, int limit, Set<Integer> found) {
+        Set<Long> queryTrigrams = new HashSet<>();
+        for (String word : words) {
+            addTrigrams(word, queryTrigrams);
+        }
+        if (queryTrigrams.size() < 2) {
+            return;
+        }
+        int minShared = Math.max(2, (int) Math.ceil(queryTrigrams.size() * MIN_TRIGRAM_SHARE));
+        int[] shared = SHARED_TRIGRAMS.get();
+        if (shared.length < nextId) {
+            shared = new int[entries.length];
+            SHARED_TRIGRAMS.set(shared);
+        }
+        List<IntSet> postings = new ArrayList<>(queryTrigrams.size());
+        for (long trigram : queryTrigrams) {
+            IntSet ids = trigrams.get(trigram);
+            if (ids != null) {
+                postings.add(ids);
+            }
+        }
+        int[] candidates = new int[16];
+        int candidateCount = 0;
+        for (IntSet ids : postings) {
+            for (int i = 0; i < ids.size(); i++) {
+                int id = ids.get(i);
+                if (++shared[id] == minShared) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = id;
+                }
+            }
+        }
+        // Keep the best `limit`: most shared trigrams, then fewest trigrams of its own, then id.
+        // Only ints are compared here; there can be thousands of candidates.
+        int[] counts = shared;
+        Comparator<Integer> worstFirst = (a, b) -> counts[a] != counts[b] ? Integer.compare(counts[a], counts[b])
+                : trigramCounts[a] != trigramCounts[b] ? Integer.compare(trigramCounts[b], trigramCounts[a])
+                : Integer.compare(b, a);
+        PriorityQueue<Integer> best = new PriorityQueue<>(worstFirst);
+        int wanted = limit - found.size();
+        for (int i = 0; i < candidateCount; i++) {
+            int id = candidates[i];
+            if (best.size() == wanted && worstFirst.compare(id, best.peek()) <= 0 || found.contains(id)) {
+                continue;
+            }
+            best.add(id);
+            if (best.size() > wanted) {
+                best.poll();
+            }
+        }
+        Integer[] ranked = best.toArray(new Integer[0]);
+        Arrays.sort(ranked, worstFirst.reversed());
+        found.addAll(Arrays.asList(ranked));
+        for (IntSet ids : postings) {
+            for (int i = 0; i < ids.size(); i++) {
+                counts[ids.get(i)] = 0;
+            }
+        }
+    }
+
+    // Callers hold the write lock
+    private void put(Entry entry) {
+        int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+        if (id >= entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            trigramCounts = Arrays.copyOf(trigramCounts, entries.length);
+        }
+        entries[id] = entry;
+        idsByUsername.put(fold(entry.username), id);
+        for (String token : entry.tokens) {
+            index(nameTokens, token).add(id);
+        }
+        if (entry.foldedEmail != null) {
+            index(emailTokens, entry.foldedEmail).add(id);
+        }
+        Set<Long> entryTrigrams = trigrams(entry);
+        trigramCounts[id] = entryTrigrams.size();
+        for (long trigram : entryTrigrams) {
+            index(trigrams, trigram).add(id);
+        }
+    }
+
+    private void remove(String username) {
+        Integer id = idsByUsername.remove(fold(username));
+        if (id == null) {
+            return;
+        }
+        Entry entry = entries[id];
+        for (String token : entry.tokens) {
+            unindex(nameTokens, token, id);
+        }
+        if (entry.foldedEmail != null) {
+            unindex(emailTokens, entry.foldedEmail, id);
+        }
+        for (long trigram : trigrams(entry)) {
+            unindex(trigrams, trigram, id);
+        }
+        entries[id] = null;
+        freeIds.push(id);
+    }
+
+    private void clear() {
+        entries = new Entry[Math.max(1024, entries.length)];
+        trigramCounts = new int[entries.length];
+        nextId = 0;
+        freeIds.clear();
+        idsByUsername.clear();
+        nameTokens.clear();
+        emailTokens.clear();
+        trigrams.clear();
+    }
+
+    private static <K> IntSet index(Map<K, IntSet> index, K key) {
+        return index.computeIfAbsent(key, k -> new IntSet());
+    }
+
+    private static <K> void unindex(Map<K, IntSet> index, K key, int id) {
+        IntSet ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.size() == 0) {
+            index.remove(key);
+        }
+    }
+
+    // Name tokens: the username, each word of the first and last name, and the full name as
+    // "first last" and "last first"
+    private static List<String> nameTokens(String username, String firstName, String lastName) {
+        List<String> first = words(firstName);
+        List<String> last = words(lastName);
+        List<String> tokens = new ArrayList<>(first.size() + last.size() + 3);
+        tokens.add(fold(username));
+        tokens.addAll(first);
+        tokens.addAll(last);
+        if (!first.isEmpty() && !last.isEmpty()) {
+            tokens.add(String.join(" ", first) + " " + String.join(" ", last));
+            tokens.add(String.join(" ", last) + " " + String.join(" ", first));
+        }
+        return tokens;
+    }
+
+    private static Set<Long> trigrams(Entry entry) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String word : words(entry.username)) {
+            addTrigrams(word, trigrams);
+        }
+        for (String word : words(entry.firstName)) {
+            addTrigrams(word, trigrams);
+        }
+        for (String word : words(entry.lastName)) {
+            addTrigrams(word, trigrams);
+        }
+        if (entry.email != null) {
+            int at = entry.email.indexOf('@');
+            for (String word : words(at < 0 ? entry.email : entry.email.substring(0, at))) {
+                addTrigrams(word, trigrams);
+            }
+        }
+        return trigrams;
+    }
+
+    // " smith " -> " sm", "smi", "mit", "ith", "th "; three chars packed into one long
+    private static void addTrigrams(String word, Set<Long> trigrams) {
+        String padded = " " + word + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+    }
+
+    // Lower-cased runs of letters and digits
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>(2);
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(fold(text.substring(start, i)));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,163 @@
+package src;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.List;
+
+// Type-ahead employee field backed by an EmployeeIndex, instead of a combo box holding every
+// username. Typing shows the best matches in a popup; arrow keys move through them, Enter or
+// a click picks one, Escape closes the list. Typing a username exactly also selects it.
+public class EmployeePicker extends JTextField {
+    private final EmployeeIndex index;
+    private final DefaultListModel<EmployeeIndex.Entry> matches = new DefaultListModel<>();
+    private final JList<EmployeeIndex.Entry> matchList = new JList<>(matches);
+    private final JPopupMenu popup = new JPopupMenu();
+    private String selectedUsername;
+    private boolean picking = false;
+
+    public EmployeePicker(EmployeeIndex index) {
+        super(15);
+        this.index = index;
+
+        matchList.setFocusable(false);
+        matchList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        matchList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = matchList.locationToIndex(e.getPoint());
+                if (row >= 0) {
+                    pick(matches.get(row));
+                }
+            }
+        });
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(matchList));
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                textChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                textChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                textChanged();
+            }
+        });
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        moveSelection(1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        moveSelection(-1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (matchList.getSelectedValue() != null) {
+                            pick(matchList.getSelectedValue());
+                        }
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+    }
+
+    // The picked username, or null if nothing valid is picked. A pick that has since been
+    // removed from the index (employee deleted or made HR) no longer counts.
+    public String getSelectedUsername() {
+        return selectedUsername != null && index.get(selectedUsername) != null ? selectedUsername : null;
+    }
+
+    public void setSelectedUsername(String username) {
+        EmployeeIndex.Entry entry = index.get(username);
+        if (entry == null) {
+            clearSelection();
+        } else {
+            pick(entry);
+        }
+    }
+
+    public void clearSelection() {
+        picking = true;
+        setText("");
+        picking = false;
+        selectedUsername = null;
+        popup.setVisible(false);
+    }
+
+    private void pick(EmployeeIndex.Entry entry) {
+        picking = true;
+        setText(entry.getUsername());
+        picking = false;
+        selectedUsername = entry.getUsername();
+        setToolTipText(entry.toString());
+        popup.setVisible(false);
+    }
+
+    // Document events can fire mid-edit, so the lookup and popup run after it completes.
+    // The index answers in well under a millisecond, so this stays on the EDT.
+    private void textChanged() {
+        if (picking) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            String text = getText();
+            EmployeeIndex.Entry exact = index.get(text.trim());
+            selectedUsername = exact == null ? null : exact.getUsername();
+            setToolTipText(exact == null ? null : exact.toString());
+            showMatches(index.search(text, EmployeeIndex.DEFAULT_LIMIT));
+        });
+    }
+
+    private void showMatches(List<EmployeeIndex.Entry> found) {
+        matches.clear();
+        for (EmployeeIndex.Entry entry : found) {
+            matches.addElement(entry);
+        }
+        if (found.isEmpty() || !isShowing() || !hasFocus()) {
+            popup.setVisible(false);
+            return;
+        }
+        matchList.setVisibleRowCount(Math.min(found.size(), EmployeeIndex.DEFAULT_LIMIT));
+        matchList.setSelectedIndex(0);
+        popup.setPreferredSize(null);
+        Dimension size = popup.getPreferredSize();
+        popup.setPreferredSize(new Dimension(Math.max(getWidth(), size.width), size.height));
+        popup.show(this, 0, getHeight());
+        requestFocusInWindow();
+    }
+
+    private void moveSelection(int delta) {
+        int row = Math.max(0, Math.min(matches.size() - 1, matchList.getSelectedIndex() + delta));
+        matchList.setSelectedIndex(row);
+        matchList.ensureIndexIsVisible(row);
+    }
+}
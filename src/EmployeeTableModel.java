@@ -0,0 +1,45 @@
+package src;
+
+import java.util.List;
+
+// HR employee grid, paged by username. HR accounts are not listed.
+public class EmployeeTableModel extends PagedTableModel<String> {
+    private static final String[] COLUMNS = { "Username", "First Name", "Last Name", "Email", "Role",
+            "Department", "Job Title" };
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    public EmployeeTableModel() {
+        super(DataChangeEvent.Entity.USER, COLUMNS, PAGE_SIZE, MAX_CACHED_PAGES);
+    }
+
+    @Override
+    protected List<String> loadPageKeys(int pageSize) {
+        return Repositories.users().getEmployeePageKeys(pageSize);
+    }
+
+    @Override
+    protected int loadRowCount() {
+        return Repositories.users().countEmployees();
+    }
+
+    @Override
+    protected Object[][] loadPage(String fromKey, int limit) {
+        return Repositories.users().getEmployeePage(fromKey, limit);
+    }
+
+    @Override
+    protected Object[] loadRow(String key) {
+        return Repositories.users().getEmployeeRow(key);
+    }
+
+    @Override
+    protected Object[] toRow(Object changed) {
+        User user = (User) changed;
+        if ("HR".equals(user.getRole())) {
+            return null;
+        }
+        return new Object[] { user.getUsername(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getDepartment(), user.getJobTitle() };
+    }
+}
@@ -0,0 +1,30 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Three-way merge of an edit form after a version conflict. For each field: if only one side
+// changed it from the value the form was opened with, that change wins; if both changed it to
+// different values the field is a conflict, and mine is kept until the user decides.
+public class FieldMerge {
+    private final List<String> conflicts = new ArrayList<>();
+
+    public String merge(String field, String base, String mine, String theirs) {
+        if (Objects.equals(mine, base) || Objects.equals(mine, theirs)) {
+            return theirs;
+        }
+        if (!Objects.equals(theirs, base)) {
+            conflicts.add(field);
+        }
+        return mine;
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+}
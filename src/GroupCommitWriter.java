@@ -0,0 +1,253 @@
+package src;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Single-writer pipeline for small mutations. Callers enqueue a mutation and get a future;
+// one writer thread takes everything that is waiting and applies it in a single transaction,
+// so a burst of clicks costs one commit (one fsync) instead of one each, and writers never
+// fight each other for SQLite's write lock.
+//
+// Each mutation runs inside its own savepoint: one that fails (a constraint, or a
+// RuntimeException) is rolled back on its own and completes with false while the rest of the
+// batch still commits. If the database is busy (another process holds the lock) the whole
+// batch is retried with exponential backoff. The queue is bounded; when it is full, submit()
+// blocks the caller for up to submitTimeoutMillis, which slows producers down to the rate the
+// disk can take.
+public class GroupCommitWriter {
+    // Work done against the shared transaction; returns the number of rows changed
+    public interface Mutation {
+        int apply(Connection connection) throws SQLException;
+
+        // Runs on the writer thread after the transaction commits (events, cache invalidation)
+        default void committed(int rows) {
+        }
+    }
+
+    public interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final long INITIAL_BACKOFF_MILLIS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+    private static final Pending STOP = new Pending(null);
+
+    private final ConnectionSource connections;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long submitTimeoutMillis;
+    private final Thread writer;
+    private volatile boolean closed = false;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder mutationCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    public GroupCommitWriter(ConnectionSource connections, int queueCapacity, int maxBatchSize, int maxAttempts,
+            long submitTimeoutMillis) {
+        this.connections = connections;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.submitTimeoutMillis = submitTimeoutMillis;
+        this.writer = new Thread(this::run, "group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Completes with true when the mutation committed and changed at least one row, false
+    // when it changed nothing or failed (the failure is logged)
+    public CompletableFuture<Boolean> submit(Mutation mutation) {
+        Pending pending = new Pending(mutation);
+        if (closed) {
+            pending.future.complete(false);
+            return pending.future;
+        }
+        try {
+            if (!queue.offer(pending, submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                System.err.println("Write queue full for " + submitTimeoutMillis + " ms, dropping a change");
+                failedCount.increment();
+                pending.future.complete(false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.complete(false);
+        }
+        return pending.future;
+    }
+
+    // Stops accepting work, commits whatever is already queued and waits for the writer
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(STOP);
+            writer.join(submitTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            boolean stop = batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+            batch.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        QueryMetrics.time("groupCommit", () -> {
+            long backoff = INITIAL_BACKOFF_MILLIS;
+            for (int attempt = 1;; attempt++) {
+                try {
+                    int[] rows = applyAll(batch);
+                    batchCount.increment();
+                    mutationCount.add(batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        Pending pending = batch.get(i);
+                        if (pending.error != null) {
+                            reportError("Error applying queued change", pending.error);
+                            failedCount.increment();
+                        } else {
+                            QueryMetrics.addRows(rows[i]);
+                            try {
+                                pending.mutation.committed(rows[i]);
+                            } catch (RuntimeException e) {
+                                // Already committed; a failing listener must not stop the rest
+                                reportError("Error after committing queued change", e);
+                            }
+                        }
+                        pending.future.complete(rows[i] > 0);
+                    }
+                    return;
+                } catch (SQLException | RuntimeException e) {
+                    if (!(e instanceof SQLException && isBusy((SQLException) e)) || attempt >= maxAttempts) {
+                        reportError("Error committing " + batch.size() + " queued changes", e);
+                        failedCount.add(batch.size());
+                        for (Pending pending : batch) {
+                            pending.future.complete(false);
+                        }
+                        return;
+                    }
+                    retryCount.increment();
+                    try {
+                        Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                }
+            }
+        });
+    }
+
+    // Rows changed per mutation; one that failed is rolled back on its own and keeps its error.
+    // Throws (leaving nothing committed) if the database is busy or the commit fails.
+    private int[] applyAll(List<Pending> batch) throws SQLException {
+        int[] rows = new int[batch.size()];
+        try (Connection connection = connections.getConnection()) {
+            // Returning the connection to the pool rolls back anything left uncommitted
+            connection.setAutoCommit(false);
+            for (int i = 0; i < batch.size(); i++) {
+                Savepoint savepoint = connection.setSavepoint();
+                batch.get(i).error = null;
+                try {
+                    rows[i] = batch.get(i).mutation.apply(connection);
+                    connection.releaseSavepoint(savepoint);
+                } catch (SQLException e) {
+                    if (isBusy(e)) {
+                        throw e;
+                    }
+                    connection.rollback(savepoint);
+                    batch.get(i).error = e;
+                    rows[i] = 0;
+                } catch (RuntimeException e) {
+                    // A bug in one mutation fails that mutation only, like a constraint would
+                    connection.rollback(savepoint);
+                    batch.get(i).error = e;
+                    rows[i] = 0;
+                }
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+        return rows;
+    }
+
+    private static void reportError(String message, Exception e) {
+        if (e instanceof SQLException) {
+            Database.reportError(message, (SQLException) e);
+        } else {
+            QueryMetrics.markError();
+            System.err.println(message + ": " + e);
+        }
+    }
+
+    private static boolean isBusy(SQLException e) {
+        int primaryCode = e.getErrorCode() & 0xff;
+        return primaryCode == SQLITE_BUSY || primaryCode == SQLITE_LOCKED;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getMutationCount() {
+        return mutationCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        long batches = getBatchCount();
+        return "GroupCommitWriter{queued=" + getQueueSize() + ", batches=" + batches + ", mutations="
+                + getMutationCount() + ", avgBatch=" + String.format("%.1f",
+                        batches == 0 ? 0.0 : (double) getMutationCount() / batches)
+                + ", retries=" + getRetryCount() + ", failed=" + getFailedCount() + '}';
+    }
+
+    private static class Pending {
+        final Mutation mutation;
+        final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        Exception error;
+
+        Pending(Mutation mutation) {
+            this.mutation = mutation;
+        }
+    }
+}
@@ -4,7 +4,9 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class HRGUI extends JFrame {
     private JPanel mainPanel;
@@ -18,18 +20,43 @@ public class HRGUI extends JFrame {
 
     // Task Creation Components
     private JTextArea titleField, descriptionField, feedbackField;
-    private JComboBox<String> assignedToDropdown, managerDropdown;
+    private EmployeePicker assignedToPicker, managerPicker;
     private JButton createTaskButton;
 
     // Employee Action Components
-    private JComboBox<String> usernameDropdown;
-    private JButton deleteEmployeeButton, editEmployeeButton;
+    private EmployeePicker usernamePicker;
+    private JButton deleteEmployeeButton, editEmployeeButton, offboardButton;
 
     // Task List Components
     private JTable tasksTable, employeesTable;
     private JScrollPane scrollPane;
     private JTextField deleteTaskField;
     private JButton deleteTaskButton;
+    private JButton exportButton;
+
+    // Task Search Components
+    private static final int SEARCH_PAGE_SIZE = 100;
+    private JTextField searchField;
+    private JButton moreResultsButton;
+    private DefaultTableModel searchModel;
+    private String searchQuery;
+    private final AsyncDatabase.Latest<Object[][]> searchLoad = new AsyncDatabase.Latest<>();
+
+    // Paged models: rows are fetched as they scroll into view and edits arrive as change events
+    private final TaskTableModel taskModel = new TaskTableModel();
+    private final EmployeeTableModel employeeModel = new EmployeeTableModel();
+
+    // Searched by the employee pickers; kept current by user change events
+    private final EmployeeIndex employeeIndex = new EmployeeIndex(Repositories.users());
+
+    // Task summary: counts by department and the employees with the most open tasks
+    private static final int SUMMARY_EMPLOYEE_ROWS = 10;
+    private JLabel summaryTotalsLabel;
+    private DefaultTableModel departmentSummaryModel, employeeSummaryModel;
+    private final AsyncDatabase.Latest<TaskSummary> summaryLoad = new AsyncDatabase.Latest<>();
+
+    // The summary reads counters, so refreshing it on every change stays cheap
+    private final DataChangeListener summaryListener = event -> SwingUtilities.invokeLater(this::refreshSummary);
 
     public HRGUI(User user) {
         this.user = user;
@@ -43,8 +70,12 @@ public class HRGUI extends JFrame {
         setupProfilePanel();
         setupEmployeeActionPanel();
         setupTaskCreationPanel();
+        setupSummaryPanel();
 
-        populateUserDropdowns();
+        Database.addChangeListener(employeeIndex);
+        AsyncDatabase.run(employeeIndex::reload);
+        refreshSummary();
+        Database.addChangeListener(summaryListener);
 
         setupTaskListPanel();
         setupEmployeeTable();
@@ -86,6 +117,10 @@ public class HRGUI extends JFrame {
         JButton goBackButton = new JButton("Log Out");
         goBackButton.setAlignmentX(Component.LEFT_ALIGNMENT);
         goBackButton.addActionListener(e -> {
+            taskModel.close();
+            employeeModel.close();
+            Database.removeChangeListener(employeeIndex);
+            Database.removeChangeListener(summaryListener);
             dispose();
             new LoginGUI();
         });
@@ -107,17 +142,17 @@ public class HRGUI extends JFrame {
         createTaskButton = new JButton("Create Task");
         createTaskButton.addActionListener(this::createTask);
 
-        assignedToDropdown = new JComboBox<>();
-        managerDropdown = new JComboBox<>();
+        assignedToPicker = new EmployeePicker(employeeIndex);
+        managerPicker = new EmployeePicker(employeeIndex);
 
         taskCreationPanel.add(new JLabel("Title:"));
         taskCreationPanel.add(titleField);
         taskCreationPanel.add(new JLabel("Description:"));
         taskCreationPanel.add(descriptionField);
         taskCreationPanel.add(new JLabel("Assigned To:"));
-        taskCreationPanel.add(assignedToDropdown);
+        taskCreationPanel.add(assignedToPicker);
         taskCreationPanel.add(new JLabel("Manager:"));
-        taskCreationPanel.add(managerDropdown);
+        taskCreationPanel.add(managerPicker);
         taskCreationPanel.add(new JLabel("Feedback:"));
         taskCreationPanel.add(feedbackField);
         taskCreationPanel.add(createTaskButton);
@@ -134,17 +169,15 @@ public class HRGUI extends JFrame {
 
         employeeActionPanel.setBorder(BorderFactory.createTitledBorder("Employee Actions"));
 
-        usernameDropdown = new JComboBox<>();
-
         JLabel userLabel = new JLabel("Select Employee's Username:");
         userLabel.setPreferredSize(new Dimension(200, userLabel.getPreferredSize().height)); // Setting a preferred
                                                                                              // width
         gbc.weightx = 1.0;
         employeeActionPanel.add(userLabel, gbc);
 
-        usernameDropdown = new JComboBox<>();
-        usernameDropdown.setMaximumSize(new Dimension(200, 25)); // Limiting the maximum size
-        employeeActionPanel.add(usernameDropdown, gbc);
+        usernamePicker = new EmployeePicker(employeeIndex);
+        usernamePicker.setMaximumSize(new Dimension(200, 25)); // Limiting the maximum size
+        employeeActionPanel.add(usernamePicker, gbc);
 
         deleteEmployeeButton = new JButton("Delete Employee");
         deleteEmployeeButton.setPreferredSize(new Dimension(200, 25)); // Setting a preferred height
@@ -156,11 +189,76 @@ public class HRGUI extends JFrame {
         employeeActionPanel.add(editEmployeeButton, gbc);
         editEmployeeButton.addActionListener(this::editEmployeeDetails);
 
+        offboardButton = new JButton("Off-board Team...");
+        offboardButton.setPreferredSize(new Dimension(200, 25)); // Setting a preferred height
+        employeeActionPanel.add(offboardButton, gbc);
+        offboardButton.addActionListener(this::offboardTeam);
+        if (Repositories.engine() != DatabaseConfig.Engine.SQLITE) {
+            // Offboarding works on the database file, not on the users shown here
+            offboardButton.setEnabled(false);
+            offboardButton.setToolTipText("Off-boarding needs database.engine=sqlite");
+        }
+
         profilePanel.add(employeeActionPanel);
     }
 
+    private void setupSummaryPanel() {
+        JPanel summaryPanel = new JPanel(new BorderLayout(0, 5));
+        summaryPanel.setBorder(BorderFactory.createTitledBorder("Task Summary"));
+
+        summaryTotalsLabel = new JLabel(" ");
+        summaryPanel.add(summaryTotalsLabel, BorderLayout.NORTH);
+
+        departmentSummaryModel = new DefaultTableModel(summaryColumns("Department", "Total"), 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        employeeSummaryModel = new DefaultTableModel(summaryColumns("Employee", "Open"), 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JPanel tables = new JPanel(new GridLayout(2, 1, 0, 5));
+        tables.add(new JScrollPane(new JTable(departmentSummaryModel)));
+        tables.add(new JScrollPane(new JTable(employeeSummaryModel)));
+        summaryPanel.add(tables, BorderLayout.CENTER);
+
+        profilePanel.add(summaryPanel);
+    }
+
+    // first, one column per status in code order (as TaskSummary rows are), last
+    private static String[] summaryColumns(String first, String last) {
+        TaskStatus[] statuses = TaskStatus.values();
+        String[] columns = new String[statuses.length + 2];
+        columns[0] = first;
+        for (TaskStatus status : statuses) {
+            columns[status.getCode() + 1] = status.getLabel();
+        }
+        columns[columns.length - 1] = last;
+        return columns;
+    }
+
+    private void refreshSummary() {
+        summaryLoad.load(() -> Repositories.tasks().getTaskSummary(), summary -> {
+            summaryTotalsLabel.setText("Total: " + summary.total() + "   Open: "
+                    + (summary.total(TaskStatus.ASSIGNED) + summary.total(TaskStatus.ACCEPTED)) + "   Completed: "
+                    + summary.total(TaskStatus.COMPLETED));
+            departmentSummaryModel.setRowCount(0);
+            for (Object[] row : summary.departmentRows()) {
+                departmentSummaryModel.addRow(row);
+            }
+            employeeSummaryModel.setRowCount(0);
+            for (Object[] row : summary.employeeRows(SUMMARY_EMPLOYEE_ROWS)) {
+                employeeSummaryModel.addRow(row);
+            }
+        });
+    }
+
     private void setupTaskListPanel() {
-        tasksTable = new JTable();
+        tasksTable = new JTable(taskModel);
         scrollPane = new JScrollPane(tasksTable);
         deleteTaskField = new JTextField(5);
         deleteTaskButton = new JButton("Delete");
@@ -184,15 +282,99 @@ public class HRGUI extends JFrame {
         deleteTaskPanel.add(new JLabel("Task ID: "));
         deleteTaskPanel.add(deleteTaskField);
         deleteTaskPanel.add(deleteTaskButton);
+        exportButton = new JButton("Export...");
+        exportButton.addActionListener(this::exportData);
+        if (Repositories.engine() != DatabaseConfig.Engine.SQLITE) {
+            // BulkExporter reads the database file, which the in-memory engine never writes
+            exportButton.setEnabled(false);
+            exportButton.setToolTipText("Export needs database.engine=sqlite");
+        }
+        deleteTaskPanel.add(exportButton);
 
-        // Create a panel to hold the table and the delete task panel
+        // Create a panel to hold the search box, the table and the delete task panel
         JPanel panel = new JPanel(new BorderLayout());
+        panel.add(createSearchPanel(), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
         panel.add(deleteTaskPanel, BorderLayout.SOUTH);
 
         mainPanel.add(panel, BorderLayout.EAST);
     }
 
+    private JPanel createSearchPanel() {
+        searchField = new JTextField(15);
+        searchField.addActionListener(e -> searchTasks());
+        JButton searchButton = new JButton("Search");
+        searchButton.addActionListener(e -> searchTasks());
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> clearSearch());
+        moreResultsButton = new JButton("More");
+        moreResultsButton.setEnabled(false);
+        moreResultsButton.addActionListener(e -> loadMoreResults());
+
+        JPanel searchPanel = new JPanel(new FlowLayout());
+        searchPanel.add(new JLabel("Search Tasks: "));
+        searchPanel.add(searchField);
+        searchPanel.add(searchButton);
+        searchPanel.add(clearButton);
+        searchPanel.add(moreResultsButton);
+        return searchPanel;
+    }
+
+    private void searchTasks() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            clearSearch();
+            return;
+        }
+
+        searchQuery = query;
+        String[] columnNames = new String[taskModel.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = taskModel.getColumnName(i);
+        }
+        searchModel = new DefaultTableModel(columnNames, 0) {
+            // make cells uneditable
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        tasksTable.setModel(searchModel);
+        loadMoreResults();
+    }
+
+    // Appends the next page of ranked results to the search table
+    private void loadMoreResults() {
+        if (searchModel == null) {
+            return;
+        }
+        String query = searchQuery;
+        DefaultTableModel model = searchModel;
+        int offset = model.getRowCount();
+        moreResultsButton.setEnabled(false);
+        searchLoad.load(() -> Repositories.tasks().searchTasks(query, SEARCH_PAGE_SIZE, offset), rows -> {
+            for (Object[] row : rows) {
+                model.addRow(row);
+            }
+            moreResultsButton.setEnabled(rows.length == SEARCH_PAGE_SIZE);
+            if (model.getRowCount() == 0) {
+                JOptionPane.showMessageDialog(this, "No tasks match \"" + query + "\".");
+            }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            moreResultsButton.setEnabled(true);
+        });
+    }
+
+    private void clearSearch() {
+        searchLoad.cancel();
+        searchField.setText("");
+        searchModel = null;
+        searchQuery = null;
+        moreResultsButton.setEnabled(false);
+        tasksTable.setModel(taskModel);
+    }
+
     private void showTextDialog(String text) {
         JTextArea textArea = new JTextArea(text);
         textArea.setEditable(false);
@@ -204,15 +386,8 @@ public class HRGUI extends JFrame {
     }
 
     private void setupEmployeeTable() {
-        String[] columnNames = { "Username", "First Name", "Last Name", "Email", "Role", "Department", "Job Title" }; // These
-                                                                                                                      // are
-                                                                                                                      // the
-                                                                                                                      // column
-                                                                                                                      // headers
-        Object[][] data = {}; // Initial empty data
-
-        // Initialize the table with data and column names
-        employeesTable = new JTable(new DefaultTableModel(data, columnNames));
+        // Initialize the table with the paged employee model
+        employeesTable = new JTable(employeeModel);
         JScrollPane scrollPane = new JScrollPane(employeesTable); // Enable scrolling
         employeesTable.setFillsViewportHeight(true);
 
@@ -224,106 +399,197 @@ public class HRGUI extends JFrame {
     private void createTask(ActionEvent e) {
         if (titleField.getText().isEmpty() ||
                 descriptionField.getText().isEmpty() ||
-                assignedToDropdown.getSelectedItem() == null ||
-                managerDropdown.getSelectedItem() == null) {
+                assignedToPicker.getSelectedUsername() == null ||
+                managerPicker.getSelectedUsername() == null) {
             JOptionPane.showMessageDialog(this, "All fields must be filled out.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
         Task task = new Task(titleField.getText(),
                 descriptionField.getText(),
-                "Assigned",
-                assignedToDropdown.getSelectedItem().toString(),
-                managerDropdown.getSelectedItem().toString(),
+                TaskStatus.ASSIGNED,
+                assignedToPicker.getSelectedUsername(),
+                managerPicker.getSelectedUsername(),
                 feedbackField.getText());
 
-        boolean success = Database.createTaskDB(
-                task);
-
-        if (success) {
-            JOptionPane.showMessageDialog(this, "Task created successfully!");
-            titleField.setText("");
-            descriptionField.setText("");
-            feedbackField.setText("");
-            refreshTaskTable();
-        } else {
-            JOptionPane.showMessageDialog(this, "Failed to create task.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        createTaskButton.setEnabled(false);
+        AsyncDatabase.load(() -> Repositories.tasks().createTaskDB(task), success -> {
+            createTaskButton.setEnabled(true);
+            if (success) {
+                JOptionPane.showMessageDialog(this, "Task created successfully!");
+                titleField.setText("");
+                descriptionField.setText("");
+                feedbackField.setText("");
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to create task.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            createTaskButton.setEnabled(true);
+        });
     }
 
     private void deleteEmployee(ActionEvent e) {
-        String username = (String) usernameDropdown.getSelectedItem();
-        if (username != null && Database.deleteUser(username)) {
-            JOptionPane.showMessageDialog(this, "Employee deleted successfully!");
-            refreshEmployeeTable(); // Refresh the display table or list of employees
-        } else {
+        String username = usernamePicker.getSelectedUsername();
+        if (username == null) {
             JOptionPane.showMessageDialog(this, "Failed to delete employee.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        deleteEmployeeButton.setEnabled(false);
+        AsyncDatabase.load(() -> Repositories.users().deleteUser(username), deleted -> {
+            deleteEmployeeButton.setEnabled(true);
+            if (deleted) {
+                JOptionPane.showMessageDialog(this, "Employee deleted successfully!");
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to delete employee.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            deleteEmployeeButton.setEnabled(true);
+        });
     }
 
     private void deleteTask(ActionEvent e) {
         try {
             int taskId = Integer.parseInt(deleteTaskField.getText());
-            if (Database.deleteTask(taskId)) {
-                JOptionPane.showMessageDialog(this, "Task deleted successfully!");
-                refreshTaskTable();
-            } else {
-                JOptionPane.showMessageDialog(this, "Enter valid Task ID!");
-            }
+            deleteTaskButton.setEnabled(false);
+            AsyncDatabase.load(() -> Repositories.tasks().deleteTask(taskId), deleted -> {
+                deleteTaskButton.setEnabled(true);
+                if (deleted) {
+                    JOptionPane.showMessageDialog(this, "Task deleted successfully!");
+                } else {
+                    JOptionPane.showMessageDialog(this, "Enter valid Task ID!");
+                }
+            }, error -> {
+                AsyncDatabase.showError(this, error);
+                deleteTaskButton.setEnabled(true);
+            });
         } catch (NumberFormatException exc) {
             JOptionPane.showMessageDialog(this, "ID must be integer!");
         }
         deleteTaskField.setText("");
     }
 
-    private void editEmployeeDetails(ActionEvent e) {
-        String username = (String) usernameDropdown.getSelectedItem();
-        if (username != null) {
-            User employee = Database.getUserHR(username); // Assuming getUser method fetches the user details
-            if (employee != null) {
-                new EditEmployeeGUI(this, "Edit Employee", true, employee);
-                JOptionPane.showMessageDialog(this, "User updated successfully!");
+    // Removes a whole department, or the selected employee, in one step, after asking what
+    // should happen to their tasks
+    private void offboardTeam(ActionEvent e) {
+        String department = JOptionPane.showInputDialog(this,
+                "Department to off-board (leave empty for the selected employee only):", "Off-board",
+                JOptionPane.QUESTION_MESSAGE);
+        if (department == null) {
+            return;
+        }
+        String username = usernamePicker.getSelectedUsername();
+        if (department.isBlank() && username == null) {
+            JOptionPane.showMessageDialog(this, "Enter a department or select an employee.", "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        Object[] options = { "Reassign", "Unassign", "Archive", "Cancel" };
+        int choice = JOptionPane.showOptionDialog(this, "What should happen to their tasks?", "Off-board",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice < 0 || choice > 2) {
+            return;
+        }
+        Offboarding.Policy policy = Offboarding.Policy.values()[choice];
+        String successor = null;
+        if (policy == Offboarding.Policy.REASSIGN) {
+            EmployeePicker successorPicker = new EmployeePicker(employeeIndex);
+            int answer = JOptionPane.showConfirmDialog(this,
+                    new Object[] { "Give their tasks to:", successorPicker }, "Off-board",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE);
+            successor = successorPicker.getSelectedUsername();
+            if (answer != JOptionPane.OK_OPTION || successor == null) {
+                return;
+            }
+        }
+        Offboarding.Request request = department.isBlank()
+                ? Offboarding.Request.users(java.util.List.of(username), policy, successor)
+                : Offboarding.Request.department(department.trim(), policy, successor);
+
+        offboardButton.setEnabled(false);
+        AsyncDatabase.load(() -> {
+            try {
+                return new Offboarding().offboard(request);
+            } catch (IllegalArgumentException exc) {
+                System.err.println("Error off-boarding: " + exc.getMessage());
+                return null;
+            }
+        }, report -> {
+            offboardButton.setEnabled(true);
+            if (report != null) {
+                JOptionPane.showMessageDialog(this, report.toString());
             } else {
-                JOptionPane.showMessageDialog(this, "User not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                JOptionPane.showMessageDialog(this, "Off-boarding failed; nobody was removed.", "Error",
+                        JOptionPane.ERROR_MESSAGE);
             }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            offboardButton.setEnabled(true);
+        });
+    }
+
+    // Streams every task or employee to a CSV or JSON Lines file (by extension) for finance
+    private void exportData(ActionEvent e) {
+        Object[] options = { "Tasks", "Employees", "Cancel" };
+        int choice = JOptionPane.showOptionDialog(this, "What would you like to export?", "Export",
+                JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice != 0 && choice != 1) {
+            return;
         }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(choice == 0 ? "tasks.csv" : "employees.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        BulkExporter.Format format = BulkExporter.Format.forPath(file);
+
+        exportButton.setEnabled(false);
+        AsyncDatabase.load(() -> {
+            try {
+                BulkExporter exporter = new BulkExporter();
+                return choice == 0 ? exporter.exportTasks(file, format, BulkExporter.Filter.NONE)
+                        : exporter.exportEmployees(file, format, BulkExporter.Filter.NONE);
+            } catch (IOException exc) {
+                System.err.println("Error exporting: " + exc.getMessage());
+                return null;
+            }
+        }, report -> {
+            exportButton.setEnabled(true);
+            if (report != null) {
+                JOptionPane.showMessageDialog(this, report.toString());
+            } else {
+                JOptionPane.showMessageDialog(this, "Export failed.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }, error -> {
+            AsyncDatabase.showError(this, error);
+            exportButton.setEnabled(true);
+        });
     }
 
-    private void populateUserDropdowns() {
-        List<String> usernames = Database.getEmployeeUsernames(); // Fetch usernames from database
-        assignedToDropdown.setModel(new DefaultComboBoxModel<>(usernames.toArray(new String[0])));
-        managerDropdown.setModel(new DefaultComboBoxModel<>(usernames.toArray(new String[0])));
-        usernameDropdown.setModel(new DefaultComboBoxModel<>(usernames.toArray(new String[0])));
+    private void editEmployeeDetails(ActionEvent e) {
+        String username = usernamePicker.getSelectedUsername();
+        if (username != null) {
+            AsyncDatabase.load(() -> Repositories.users().getUserHR(username), employee -> {
+                if (employee != null) {
+                    new EditEmployeeGUI(this, "Edit Employee", true, employee);
+                    JOptionPane.showMessageDialog(this, "User updated successfully!");
+                } else {
+                    JOptionPane.showMessageDialog(this, "User not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }
     }
 
     private void refreshTaskTable() {
-        Object[][] data = Database.getAllTasks();
-        String[] columnNames = { "Task ID", "Title", "Description", "Status", "Assigned To", "Manager" };
-        DefaultTableModel model = new DefaultTableModel(data, columnNames) {
-            // make cells uneditable
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        tasksTable.setModel(model);
-        tasksTable.revalidate();
+        taskModel.refresh();
     }
 
     private void refreshEmployeeTable() {
-        // Fetch the latest employee data from the database
-        Object[][] data = Database.getAllEmployees(); // You need to implement this method in the Database class
-        String[] columnNames = { "Username", "First Name", "Last Name", "Email", "Role", "Department", "Job Title" };
-        // Create a new table model with the fetched data
-        DefaultTableModel model = new DefaultTableModel(data, columnNames) {
-            // make cells uneditable
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-        employeesTable.setModel(model);
-        employeesTable.revalidate();
+        // Re-read the employee page index from the database
+        employeeModel.refresh();
     }
 }
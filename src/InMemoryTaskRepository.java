@@ -0,0 +1,506 @@
+package src;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Tasks held in memory, for demos, tests and benchmarks (database.engine=memory). Nothing is
+// written to disk.
+//
+// Tasks live in an array indexed by task_id (ids are handed out in order, as AUTOINCREMENT
+// does), with secondary indexes from assigned_to, manager (both ignoring case) and status to
+// sorted int sets of task ids. Reads share a read lock; writes take the write lock.
+//
+// Per-assignee status counts are kept up to date on every write, like the SQLite counter
+// tables; department totals are rolled up from them using the user repository.
+public class InMemoryTaskRepository implements TaskRepository {
+    private final UserRepository users;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Task[] tasks = new Task[1024];
+    private int lastTaskId = 0;
+    private int taskCount = 0;
+    private final Map<String, IntSet> byAssignee = new HashMap<>();
+    private final Map<String, IntSet> byManager = new HashMap<>();
+    private final Map<TaskStatus, IntSet> byStatus = new EnumMap<>(TaskStatus.class);
+    // Folded assignee ("" when unassigned) -> tasks per status
+    private final Map<String, AssigneeCounts> countsByAssignee = new HashMap<>();
+
+    public InMemoryTaskRepository(UserRepository users) {
+        this.users = users;
+        if (users instanceof InMemoryUserRepository) {
+            // So that deleting a user clears them from their tasks
+            ((InMemoryUserRepository) users).setTasks(this);
+        }
+    }
+
+    @Override
+    public boolean createTaskDB(Task task) {
+        if (task.getTitle() == null || task.getDescription() == null || task.getStatus() == null) {
+            return false;
+        }
+        Task stored = new Task(task);
+        lock.writeLock().lock();
+        try {
+            String assignedTo = storedUsername(task.getAssignedTo());
+            String manager = storedUsername(task.getManager());
+            if (assignedTo == null && task.getAssignedTo() != null || manager == null && task.getManager() != null) {
+                return false;
+            }
+            stored.setAssignedTo(assignedTo);
+            stored.setManager(manager);
+            stored.setTaskId(++lastTaskId);
+            stored.markClean();
+            if (lastTaskId >= tasks.length) {
+                tasks = Arrays.copyOf(tasks, tasks.length * 2);
+            }
+            put(stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        task.setTaskId(stored.getTaskId());
+        task.markClean();
+        Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.INSERTED, task.getTaskId(), task);
+        return true;
+    }
+
+    @Override
+    public UpdateResult updateTaskStatus(int taskId, TaskStatus newStatus) {
+        return changeStatus(taskId, newStatus);
+    }
+
+    // The transition check and the write happen under the same lock, like the SQL version
+    private UpdateResult changeStatus(int taskId, TaskStatus newStatus) {
+        lock.writeLock().lock();
+        try {
+            Task old = find(taskId);
+            if (old == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            if (!old.getStatus().canMoveTo(newStatus)) {
+                return UpdateResult.CONFLICT;
+            }
+            Task updated = new Task(old);
+            updated.setStatus(newStatus);
+            updated.setVersion(old.getVersion() + 1);
+            updated.markClean();
+            remove(old);
+            put(updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.UPDATED, taskId, null);
+        return UpdateResult.UPDATED;
+    }
+
+    @Override
+    public UpdateResult updateTask(Task task) {
+        if (task.getTitle() == null || task.getDescription() == null || task.getStatus() == null) {
+            return UpdateResult.FAILED;
+        }
+        lock.writeLock().lock();
+        try {
+            Task old = find(task.getTaskId());
+            if (old == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            if (old.getVersion() != task.getVersion()) {
+                return UpdateResult.CONFLICT;
+            }
+            if (!task.isDirty()) {
+                return UpdateResult.UPDATED;
+            }
+            if ((task.getDirtyFields() & Task.STATUS) != 0 && !old.getStatus().canMoveTo(task.getStatus())) {
+                return UpdateResult.FAILED;
+            }
+            int dirty = task.getDirtyFields();
+            String assignedTo = storedUsername(task.getAssignedTo());
+            String manager = storedUsername(task.getManager());
+            if ((dirty & Task.ASSIGNED_TO) != 0 && assignedTo == null && task.getAssignedTo() != null
+                    || (dirty & Task.MANAGER) != 0 && manager == null && task.getManager() != null) {
+                return UpdateResult.FAILED;
+            }
+            remove(old);
+            task.setVersion(old.getVersion() + 1);
+            task.markClean();
+            Task updated = new Task(task);
+            if ((dirty & Task.ASSIGNED_TO) != 0) {
+                updated.setAssignedTo(assignedTo);
+            }
+            if ((dirty & Task.MANAGER) != 0) {
+                updated.setManager(manager);
+            }
+            updated.markClean();
+            put(updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.UPDATED, task.getTaskId(), task);
+        return UpdateResult.UPDATED;
+    }
+
+    @Override
+    public boolean deleteTask(int taskId) {
+        lock.writeLock().lock();
+        try {
+            Task old = find(taskId);
+            if (old == null) {
+                return false;
+            }
+            remove(old);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.DELETED, taskId, null);
+        return true;
+    }
+
+    // Called by InMemoryUserRepository once a user has gone. As in Database.deleteUser, their
+    // tasks are kept, unassigned, and tasks they managed lose their manager. Returns the
+    // number of tasks changed; the caller fires the change events.
+    int clearUser(String username) {
+        String key = foldKey(username);
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = new TreeSet<>();
+            for (IntSet index : Arrays.asList(byAssignee.get(key), byManager.get(key))) {
+                for (int i = 0; index != null && i < index.size(); i++) {
+                    ids.add(index.get(i));
+                }
+            }
+            for (int id : ids) {
+                Task old = tasks[id];
+                Task updated = new Task(old);
+                if (key.equals(foldKey(old.getAssignedTo()))) {
+                    updated.setAssignedTo(null);
+                }
+                if (key.equals(foldKey(old.getManager()))) {
+                    updated.setManager(null);
+                }
+                updated.setVersion(old.getVersion() + 1);
+                updated.markClean();
+                remove(old);
+                put(updated);
+            }
+            return ids.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Nothing to batch in memory; the change is applied straight away
+    @Override
+    public CompletableFuture<Boolean> queueStatusChange(int taskId, TaskStatus newStatus) {
+        return CompletableFuture.completedFuture(changeStatus(taskId, newStatus) == UpdateResult.UPDATED);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> queueDelete(int taskId) {
+        return CompletableFuture.completedFuture(deleteTask(taskId));
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        lock.readLock().lock();
+        try {
+            Task task = find(taskId);
+            return task == null ? null : new Task(task);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getEmployeeTasks(String username) {
+        lock.readLock().lock();
+        try {
+            return copies(byAssignee.get(foldKey(username)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getManagerTasks(String username) {
+        lock.readLock().lock();
+        try {
+            return copies(byManager.get(foldKey(username)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public EmployeeDashboard getEmployeeDashboard(String username) {
+        EmployeeDashboard dashboard = new EmployeeDashboard();
+        String key = foldKey(username);
+        lock.readLock().lock();
+        try {
+            for (Task task : copies(byManager.get(key))) {
+                dashboard.add(EmployeeDashboard.MANAGER, task);
+            }
+            for (Task task : copies(byAssignee.get(key))) {
+                // Tasks someone assigned to themselves only show in the manager section, and
+                // rejected or completed tasks are no longer the assignee's to act on
+                if (!key.equals(foldKey(task.getManager()))
+                        && (task.getStatus() == TaskStatus.ASSIGNED || task.getStatus() == TaskStatus.ACCEPTED)) {
+                    dashboard.add(task.getStatus() == TaskStatus.ACCEPTED ? EmployeeDashboard.ACCEPTED
+                            : EmployeeDashboard.INCOMING, task);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return dashboard;
+    }
+
+    @Override
+    public int countTasksWithStatus(TaskStatus status) {
+        lock.readLock().lock();
+        try {
+            IntSet ids = byStatus.get(status);
+            return ids == null ? 0 : ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public TaskSummary getTaskSummary() {
+        List<AssigneeCounts> snapshot = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (AssigneeCounts counts : countsByAssignee.values()) {
+                snapshot.add(new AssigneeCounts(counts.assignee, counts.counts.clone()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // User lookups happen outside the lock, once per assignee rather than per task
+        TaskSummary summary = new TaskSummary();
+        for (AssigneeCounts counts : snapshot) {
+            User user = counts.assignee == null ? null : users.getUserHR(counts.assignee);
+            for (TaskStatus status : TaskStatus.values()) {
+                int count = counts.counts[status.getCode()];
+                summary.addDepartment(user == null ? "" : user.getDepartment(), status, count);
+                if (counts.assignee != null) {
+                    summary.addEmployee(counts.assignee, status, count);
+                }
+            }
+        }
+        return summary;
+    }
+
+    @Override
+    public Object[][] getAllTasks() {
+        return getTaskPage(1, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Integer> getTaskPageKeys(int pageSize) {
+        lock.readLock().lock();
+        try {
+            List<Integer> keys = new ArrayList<>();
+            int index = 0;
+            for (int id = 1; id <= lastTaskId; id++) {
+                if (tasks[id] != null && index++ % pageSize == 0) {
+                    keys.add(id);
+                }
+            }
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[][] getTaskPage(int fromTaskId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Object[]> rows = new ArrayList<>(Math.min(limit, taskCount));
+            for (int id = Math.max(1, fromTaskId); id <= lastTaskId && rows.size() < limit; id++) {
+                if (tasks[id] != null) {
+                    rows.add(toRow(tasks[id]));
+                }
+            }
+            return rows.toArray(new Object[0][]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[] getTaskRow(int taskId) {
+        lock.readLock().lock();
+        try {
+            Task task = find(taskId);
+            return task == null ? null : toRow(task);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countTasks() {
+        lock.readLock().lock();
+        try {
+            return taskCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same matching as the FTS5 search: every word of the query must start a word in the
+    // title, description or feedback. Scored 10/3/1 per field like the bm25 weights, then by id.
+    @Override
+    public Object[][] searchTasks(String query, int limit, int offset) {
+        List<String> terms = words(query);
+        if (terms.isEmpty()) {
+            return new Object[0][];
+        }
+        List<int[]> matches = new ArrayList<>(); // { score, taskId }
+        lock.readLock().lock();
+        try {
+            for (int id = 1; id <= lastTaskId; id++) {
+                Task task = tasks[id];
+                if (task != null) {
+                    int score = score(terms, task);
+                    if (score > 0) {
+                        matches.add(new int[] { score, id });
+                    }
+                }
+            }
+            matches.sort((a, b) -> a[0] != b[0] ? Integer.compare(b[0], a[0]) : Integer.compare(a[1], b[1]));
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = offset; i < matches.size() && rows.size() < limit; i++) {
+                rows.add(toRow(tasks[matches.get(i)[1]]));
+            }
+            return rows.toArray(new Object[0][]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int score(List<String> terms, Task task) {
+        List<String> title = words(task.getTitle());
+        List<String> description = words(task.getDescription());
+        List<String> feedback = words(task.getFeedback());
+        int score = 0;
+        for (String term : terms) {
+            int termScore = (hasPrefix(title, term) ? 10 : 0) + (hasPrefix(description, term) ? 3 : 0)
+                    + (hasPrefix(feedback, term) ? 1 : 0);
+            if (termScore == 0) {
+                return 0;
+            }
+            score += termScore;
+        }
+        return score;
+    }
+
+    private static boolean hasPrefix(List<String> words, String term) {
+        for (String word : words) {
+            if (word.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text != null) {
+            for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private Task find(int taskId) {
+        return taskId > 0 && taskId <= lastTaskId ? tasks[taskId] : null;
+    }
+
+    // Like the foreign keys in SQLite: an assignee or manager must be an existing user, matched
+    // ignoring case and stored under the user's own spelling (as task_with_names returns it).
+    // Null if there is no such user. Checked under the write lock, and clearUser runs after the
+    // user has been removed, so a task is never left pointing at a deleted user.
+    private String storedUsername(String username) {
+        User user = username == null ? null : users.getUserHR(username);
+        return user == null ? null : user.getUsername();
+    }
+
+    // Callers hold the write lock
+    private void put(Task task) {
+        int id = task.getTaskId();
+        tasks[id] = task;
+        taskCount++;
+        index(byAssignee, foldKey(task.getAssignedTo())).add(id);
+        index(byManager, foldKey(task.getManager())).add(id);
+        index(byStatus, task.getStatus()).add(id);
+        count(task, 1);
+    }
+
+    private void remove(Task task) {
+        int id = task.getTaskId();
+        tasks[id] = null;
+        taskCount--;
+        unindex(byAssignee, foldKey(task.getAssignedTo()), id);
+        unindex(byManager, foldKey(task.getManager()), id);
+        unindex(byStatus, task.getStatus(), id);
+        count(task, -1);
+    }
+
+    private void count(Task task, int delta) {
+        String key = foldKey(task.getAssignedTo());
+        AssigneeCounts counts = countsByAssignee.computeIfAbsent(key,
+                k -> new AssigneeCounts(task.getAssignedTo(), new int[TaskStatus.values().length]));
+        counts.counts[task.getStatus().getCode()] += delta;
+        if (delta < 0 && Arrays.stream(counts.counts).allMatch(count -> count == 0)) {
+            countsByAssignee.remove(key);
+        }
+    }
+
+    private static <K> IntSet index(Map<K, IntSet> index, K key) {
+        return index.computeIfAbsent(key, k -> new IntSet());
+    }
+
+    private static <K> void unindex(Map<K, IntSet> index, K key, int id) {
+        IntSet ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.size() == 0) {
+            index.remove(key);
+        }
+    }
+
+    private List<Task> copies(IntSet ids) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Task> copies = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            copies.add(new Task(tasks[ids.get(i)]));
+        }
+        return copies;
+    }
+
+    private static Object[] toRow(Task task) {
+        return new Object[] { task.getTaskId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getAssignedTo(), task.getManager() };
+    }
+
+    // Unassigned tasks are indexed under the empty string, which no username can match
+    private static String foldKey(String username) {
+        return username == null ? "" : InMemoryUserRepository.fold(username);
+    }
+
+    private static class AssigneeCounts {
+        final String assignee;
+        final int[] counts;
+
+        AssigneeCounts(String assignee, int[] counts) {
+            this.assignee = assignee;
+            this.counts = counts;
+        }
+    }
+}
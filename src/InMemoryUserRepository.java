@@ -0,0 +1,258 @@
+package src;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Users held in memory, for demos, tests and benchmarks (database.engine=memory). Nothing is
+// written to disk. Follows the same rules as the SQLite schema: usernames are unique ignoring
+// case, emails are unique, and role must be Employee or HR.
+public class InMemoryUserRepository implements UserRepository {
+    private static final Set<String> ROLES = Set.of("Employee", "HR");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ordered by username (case-sensitive, like the SQL ORDER BY) for the paged grid
+    private final TreeMap<String, User> users = new TreeMap<>();
+    private final Map<String, String> usernamesIgnoringCase = new HashMap<>();
+    private final Set<String> emails = new HashSet<>();
+    private int employeeCount = 0;
+    // Tasks to clear when a user is deleted; set by the InMemoryTaskRepository built on this
+    private volatile InMemoryTaskRepository tasks;
+
+    void setTasks(InMemoryTaskRepository tasks) {
+        this.tasks = tasks;
+    }
+
+    @Override
+    public boolean addUser(String username, String password, String role, String firstName, String lastName,
+            String department, String jobTitle, String email) {
+        if (username == null || password == null || !ROLES.contains(role) || firstName == null || lastName == null
+                || email == null) {
+            return false;
+        }
+        User user = new User(username, password, role, firstName, lastName, department, jobTitle, email);
+        lock.writeLock().lock();
+        try {
+            if (usernamesIgnoringCase.containsKey(fold(username)) || emails.contains(email)) {
+                return false;
+            }
+            put(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Database.fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.INSERTED, username, new User(user));
+        return true;
+    }
+
+    @Override
+    public boolean deleteUser(String username) {
+        String stored;
+        lock.writeLock().lock();
+        try {
+            User user = find(username);
+            if (user == null) {
+                return false;
+            }
+            stored = user.getUsername();
+            remove(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Not under our lock: the task repository checks users while holding its own
+        int tasksChanged = tasks == null ? 0 : tasks.clearUser(stored);
+        Database.fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.DELETED, stored, null);
+        if (tasksChanged > 0) {
+            Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.RELOADED, null, null);
+        }
+        return true;
+    }
+
+    @Override
+    public User getUser(String username, String password) {
+        User user = getUserHR(username);
+        return user == null || !user.getPassword().equals(password) ? null : user;
+    }
+
+    @Override
+    public User getUserHR(String username) {
+        lock.readLock().lock();
+        try {
+            User user = find(username);
+            return user == null ? null : new User(user);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public UpdateResult updateEmployee(User user) {
+        if (!ROLES.contains(user.getRole()) || user.getFirstName() == null || user.getLastName() == null
+                || user.getEmail() == null) {
+            return UpdateResult.FAILED;
+        }
+        lock.writeLock().lock();
+        try {
+            User old = find(user.getUsername());
+            if (old == null) {
+                return UpdateResult.NOT_FOUND;
+            }
+            if (old.getVersion() != user.getVersion()) {
+                return UpdateResult.CONFLICT;
+            }
+            if (!user.isDirty()) {
+                return UpdateResult.UPDATED;
+            }
+            if (!old.getEmail().equals(user.getEmail()) && emails.contains(user.getEmail())) {
+                return UpdateResult.FAILED;
+            }
+            remove(old);
+            // The password is not editable here, same as the SQL UPDATE
+            User updated = new User(old.getUsername(), old.getPassword(), user.getRole(), user.getFirstName(),
+                    user.getLastName(), user.getDepartment(), user.getJobTitle(), user.getEmail());
+            updated.setVersion(old.getVersion() + 1);
+            put(updated);
+            user.setVersion(updated.getVersion());
+            user.markClean();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Database.fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.UPDATED, user.getUsername(), user);
+        return UpdateResult.UPDATED;
+    }
+
+    @Override
+    public List<String> getEmployeeUsernames() {
+        lock.readLock().lock();
+        try {
+            List<String> usernames = new ArrayList<>(employeeCount);
+            for (User user : users.values()) {
+                if (isEmployee(user)) {
+                    usernames.add(user.getUsername());
+                }
+            }
+            return usernames;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[][] getAllEmployees() {
+        lock.readLock().lock();
+        try {
+            return employeeRows(users.values(), Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> getEmployeePageKeys(int pageSize) {
+        lock.readLock().lock();
+        try {
+            List<String> keys = new ArrayList<>();
+            int index = 0;
+            for (User user : users.values()) {
+                if (isEmployee(user) && index++ % pageSize == 0) {
+                    keys.add(user.getUsername());
+                }
+            }
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[][] getEmployeePage(String fromUsername, int limit) {
+        lock.readLock().lock();
+        try {
+            return employeeRows(users.tailMap(fromUsername, true).values(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object[] getEmployeeRow(String username) {
+        lock.readLock().lock();
+        try {
+            User user = find(username);
+            return user != null && isEmployee(user) ? toRow(user) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countEmployees() {
+        lock.readLock().lock();
+        try {
+            return employeeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Usernames are matched ignoring case, as in SQLite. Callers hold the lock.
+    private User find(String username) {
+        String stored = username == null ? null : usernamesIgnoringCase.get(fold(username));
+        return stored == null ? null : users.get(stored);
+    }
+
+    // Callers hold the write lock
+    private void put(User user) {
+        users.put(user.getUsername(), user);
+        usernamesIgnoringCase.put(fold(user.getUsername()), user.getUsername());
+        emails.add(user.getEmail());
+        if (isEmployee(user)) {
+            employeeCount++;
+        }
+    }
+
+    private void remove(User user) {
+        users.remove(user.getUsername());
+        usernamesIgnoringCase.remove(fold(user.getUsername()));
+        emails.remove(user.getEmail());
+        if (isEmployee(user)) {
+            employeeCount--;
+        }
+    }
+
+    private static Object[][] employeeRows(Collection<User> candidates, int limit) {
+        List<Object[]> rows = new ArrayList<>();
+        for (User user : candidates) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            if (isEmployee(user)) {
+                rows.add(toRow(user));
+            }
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    private static Object[] toRow(User user) {
+        return new Object[] { user.getUsername(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getRole(), user.getDepartment(), user.getJobTitle() };
+    }
+
+    private static boolean isEmployee(User user) {
+        return !"HR".equals(user.getRole());
+    }
+
+    // SQLite's NOCASE only folds ASCII letters
+    static String fold(String value) {
+        StringBuilder folded = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (folded == null) {
+                    folded = new StringBuilder(value);
+                }
+                folded.setCharAt(i, (char) (c + ('a' - 'A')));
+            }
+        }
+        return folded == null ? value : folded.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package src;
+
+import java.util.Arrays;
+
+// Sorted set of ids in a plain int array, so an index entry costs 4 bytes. Used for the
+// in-memory secondary indexes (InMemoryTaskRepository, EmployeeIndex); not thread-safe.
+final class IntSet {
+    private int[] values = new int[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    void add(int value) {
+        int position = Arrays.binarySearch(values, 0, size, value);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = value;
+        size++;
+    }
+
+    boolean remove(int value) {
+        int position = Arrays.binarySearch(values, 0, size, value);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        size--;
+        return true;
+    }
+}
@@ -86,7 +86,15 @@ public class LoginGUI extends JFrame implements ActionListener {
         String username = usernameField.getText();
         String password = new String(passwordField.getPassword());
 
-        User user = Database.getUser(username, password);
+        loginButton.setEnabled(false);
+        AsyncDatabase.load(() -> Repositories.users().getUser(username, password), this::openDashboard, error -> {
+            AsyncDatabase.showError(this, error);
+            loginButton.setEnabled(true);
+        });
+    }
+
+    private void openDashboard(User user) {
+        loginButton.setEnabled(true);
         if (user == null) {
             JOptionPane.showMessageDialog(this, "Invalid Credentials!");
             usernameField.setText("");
@@ -0,0 +1,139 @@
+package src;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Small thread-safe cache with a size bound (least recently used entry goes first) and a
+// time-to-live per entry. Keeps hit/miss/eviction counts for diagnostics.
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.currentTimeMillis() > entry.expiresAt) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    // Returns the cached value, or loads, caches and returns it. Null results are not cached.
+    // The loader runs outside the lock so one slow load does not block other lookups.
+    public V get(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long version = version();
+        value = loader.apply(key);
+        if (value != null) {
+            putIfUnchanged(key, value, version);
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    // Skips the put if anything was invalidated while the value was being loaded, so a
+    // load that raced with a write never re-caches the old row
+    private synchronized void putIfUnchanged(K key, V value, long version) {
+        if (version == invalidations) {
+            put(key, value);
+        }
+    }
+
+    private synchronized long version() {
+        return invalidations;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getExpirationCount() {
+        return expirations;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LruCache{" +
+                "size=" + entries.size() +
+                ", max=" + maxSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + String.format("%.2f", getHitRate()) +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                '}';
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
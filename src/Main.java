@@ -2,7 +2,7 @@ package src;
 
 public class Main {
     public static void main(String[] args) {
-        Database.createTables();
+        Repositories.open(Database.getConfig());
         new LoginGUI();
     }
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package src;
+
+import java.sql.*;
+import java.util.*;
+
+// Removes a set of employees, or a whole department, in one transaction: their tasks are
+// handed on according to a Policy, tasks they managed are handed on or left without a
+// manager, and then the users are deleted. Every step is one set-based statement over a
+// temporary table of the leaving user_ids, so a team of hundreds goes in one short write and
+// either everyone leaves or nobody does. HR accounts are never off-boarded.
+//
+// Usage: java src.Offboarding --users a,b,c | --department D
+//            --policy reassign|unassign|archive [--to USERNAME]
+public class Offboarding {
+
+    public enum Policy {
+        // Their tasks go to the successor, who also becomes manager of the tasks they managed
+        REASSIGN,
+        // Their tasks stay with nobody assigned
+        UNASSIGN,
+        // Their tasks move to task_archive with the usernames written out
+        ARCHIVE;
+
+        // Case-insensitive lookup by name, e.g. "archive"
+        public static Policy fromName(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown off-boarding policy '" + name + "', expected one of "
+                        + Arrays.toString(values()).toLowerCase());
+            }
+        }
+    }
+
+    private static final String CREATE_LEAVING = "CREATE TEMP TABLE IF NOT EXISTS offboarding ("
+            + "user_id INTEGER PRIMARY KEY)";
+    private static final String LEAVING = "(SELECT user_id FROM temp.offboarding)";
+
+    // Copied while their users still exist, so the usernames can be written out
+    private static final String ARCHIVE_TASKS = "INSERT INTO task_archive (task_id, title, description, status, "
+            + "assigned_to, manager, feedback, version) SELECT task_id, title, description, status, assigned_to, "
+            + "manager, feedback, version FROM task_with_names WHERE assigned_to_id IN " + LEAVING;
+
+    // Off-boards everyone the request names. Null if the database failed, and
+    // IllegalArgumentException if the successor is not a user who is staying; either way
+    // nothing was changed.
+    public Report offboard(Request request) {
+        return QueryMetrics.time("offboard", () -> {
+            Report report = new Report();
+            long start = System.nanoTime();
+
+            try (Connection connection = Database.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_LEAVING);
+                connection.setAutoCommit(false);
+                try {
+                    statement.execute("DELETE FROM temp.offboarding");
+                    selectLeaving(connection, request, report);
+                    Integer successorId = request.policy == Policy.REASSIGN ? successorId(connection, request) : null;
+
+                    if (request.policy == Policy.ARCHIVE) {
+                        statement.executeUpdate(ARCHIVE_TASKS);
+                        statement.executeUpdate("DELETE FROM task WHERE assigned_to_id IN " + LEAVING);
+                        report.tasksArchived = changes(statement);
+                    } else {
+                        update(connection, "UPDATE task SET assigned_to_id = ?, version = version + 1 "
+                                + "WHERE assigned_to_id IN " + LEAVING, successorId);
+                        report.tasksReassigned = changes(statement);
+                    }
+                    update(connection, "UPDATE task SET manager_id = ?, version = version + 1 "
+                            + "WHERE manager_id IN " + LEAVING, successorId);
+                    report.managedTasksReassigned = changes(statement);
+                    statement.executeUpdate("DELETE FROM user WHERE user_id IN " + LEAVING);
+                    report.usersRemoved = changes(statement);
+                    statement.execute("DELETE FROM temp.offboarding");
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                Database.reportError("Error off-boarding users", e);
+                return null;
+            }
+            report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            QueryMetrics.addRows(report.usersRemoved);
+
+            if (report.usersRemoved > 0) {
+                Database.invalidateUserCaches();
+                Database.fireChange(DataChangeEvent.Entity.USER, DataChangeEvent.Type.RELOADED, null, null);
+            }
+            if (report.tasksReassigned + report.tasksArchived + report.managedTasksReassigned > 0) {
+                Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.RELOADED, null, null);
+            }
+            return report;
+        });
+    }
+
+    private static void selectLeaving(Connection connection, Request request, Report report) throws SQLException {
+        if (request.department != null) {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO temp.offboarding "
+                    + "SELECT user_id FROM user WHERE department = ? AND role != 'HR'")) {
+                statement.setString(1, request.department);
+                statement.executeUpdate();
+            }
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("INSERT OR IGNORE INTO temp.offboarding "
+                + "SELECT user_id FROM user WHERE username = ? COLLATE NOCASE AND role != 'HR'")) {
+            for (String username : request.usernames) {
+                statement.setString(1, username);
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    report.notFound.add(request.usernames.get(i));
+                }
+            }
+        }
+    }
+
+    // The successor must exist and not be leaving too
+    private static Integer successorId(Connection connection, Request request) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT user_id FROM user "
+                + "WHERE username = ? COLLATE NOCASE AND user_id NOT IN " + LEAVING)) {
+            statement.setString(1, request.successor);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new IllegalArgumentException("Successor '" + request.successor
+                            + "' is not a user who is staying");
+                }
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static void update(Connection connection, String sql, Integer userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, userId);
+            statement.executeUpdate();
+        }
+    }
+
+    // Rows the last write itself changed. executeUpdate's count also includes the rows its
+    // triggers wrote (counters, full-text index), which would inflate the report several times.
+    private static int changes(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT changes()")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    // Who leaves and what happens to their tasks. Build with users() or department().
+    public static final class Request {
+        private final List<String> usernames;
+        private final String department;
+        private final Policy policy;
+        private final String successor;
+
+        private Request(List<String> usernames, String department, Policy policy, String successor) {
+            if (policy == Policy.REASSIGN && successor == null) {
+                throw new IllegalArgumentException("Reassigning needs a successor");
+            }
+            this.usernames = usernames;
+            this.department = department;
+            this.policy = policy;
+            this.successor = policy == Policy.REASSIGN ? successor : null;
+        }
+
+        public static Request users(Collection<String> usernames, Policy policy, String successor) {
+            return new Request(new ArrayList<>(usernames), null, policy, successor);
+        }
+
+        public static Request department(String department, Policy policy, String successor) {
+            return new Request(Collections.emptyList(), department, policy, successor);
+        }
+    }
+
+    public static class Report {
+        private int usersRemoved;
+        private int tasksReassigned;
+        private int tasksArchived;
+        private int managedTasksReassigned;
+        private long elapsedMillis;
+        private final List<String> notFound = new ArrayList<>();
+
+        public int getUsersRemoved() {
+            return usersRemoved;
+        }
+
+        // Tasks that were assigned to a leaving user: now the successor's, or unassigned
+        public int getTasksReassigned() {
+            return tasksReassigned;
+        }
+
+        public int getTasksArchived() {
+            return tasksArchived;
+        }
+
+        // Tasks a leaving user managed: now managed by the successor, or by nobody
+        public int getManagedTasksReassigned() {
+            return managedTasksReassigned;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        // Requested usernames that matched no employee
+        public List<String> getNotFound() {
+            return Collections.unmodifiableList(notFound);
+        }
+
+        @Override
+        public String toString() {
+            return "Off-boarded " + usersRemoved + " users; " + tasksReassigned + " tasks reassigned, "
+                    + tasksArchived + " archived, " + managedTasksReassigned + " managed tasks handed on in "
+                    + elapsedMillis + " ms";
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> usernames = null;
+        String department = null;
+        String policy = null;
+        String successor = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--users":
+                    usernames = Arrays.asList(args[i + 1].split(","));
+                    break;
+                case "--department":
+                    department = args[i + 1];
+                    break;
+                case "--policy":
+                    policy = args[i + 1];
+                    break;
+                case "--to":
+                    successor = args[i + 1];
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if ((usernames == null) == (department == null) || policy == null) {
+            System.err.println("Usage: java src.Offboarding --users a,b,c | --department D "
+                    + "--policy reassign|unassign|archive [--to USERNAME]");
+            System.exit(2);
+        }
+
+        Database.createTables();
+        Policy chosen = Policy.fromName(policy);
+        Request request = department != null ? Request.department(department, chosen, successor)
+                : Request.users(usernames, chosen, successor);
+        Report report = new Offboarding().offboard(request);
+        if (report == null) {
+            System.exit(1);
+        }
+        System.out.println(report);
+        for (String username : report.getNotFound()) {
+            System.err.println("No such employee: " + username);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package src;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Call, error and row counts plus a latency histogram for one Database operation
+public class OperationMetrics implements OperationMetricsMBean {
+    private final String operation;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void record(long nanos, long rowCount, boolean failed) {
+        calls.increment();
+        rows.add(rowCount);
+        if (failed) {
+            errors.increment();
+        }
+        latency.recordNanos(nanos);
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanMillis();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getP90Millis() {
+        return latency.getPercentileMillis(90);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.getPercentileMillis(99.9);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMillis();
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        latency.reset();
+    }
+}
@@ -0,0 +1,26 @@
+package src;
+
+// JMX view of one Database operation, registered as src:type=DatabaseOperation,name=<operation>
+public interface OperationMetricsMBean {
+    String getOperation();
+
+    long getCallCount();
+
+    long getErrorCount();
+
+    long getRowCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
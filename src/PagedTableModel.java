@@ -0,0 +1,385 @@
+package src;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+
+// Read-only table model that loads rows a page at a time using keyset pagination.
+// Only the first key and row count of each page are kept for the whole table; page contents
+// are fetched in the background when the table first asks for one of their rows, and at most
+// maxCachedPages pages are held in memory at once.
+//
+// Committed changes arrive as DataChangeEvents and are applied in place as row
+// inserts/updates/deletes, so an edit never re-reads the table and the JTable keeps its
+// scroll position and selection. The key must be column 0 of every row.
+public abstract class PagedTableModel<K extends Comparable<K>> extends AbstractTableModel
+        implements DataChangeListener {
+    private static final Object LOADING = "Loading...";
+
+    private final String[] columnNames;
+    private final int pageSize;
+    private final DataChangeEvent.Entity entity;
+    private final Map<Integer, List<Object[]>> pages;
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private final AsyncDatabase.Latest<PageIndex<K>> indexLoad = new AsyncDatabase.Latest<>();
+
+    // Per page: first key, first row and number of rows. Pages grow and shrink with edits
+    // and are rebalanced on the next refresh.
+    private List<K> pageKeys = new ArrayList<>();
+    private int[] pageStarts = new int[0];
+    private int[] pageCounts = new int[0];
+    private int rowCount = 0;
+    private boolean indexLoaded = false;
+    // Bumped on every refresh so that pages requested before it are dropped
+    private int generation = 0;
+
+    protected PagedTableModel(DataChangeEvent.Entity entity, String[] columnNames, int pageSize,
+            int maxCachedPages) {
+        this.entity = entity;
+        this.columnNames = columnNames;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        Database.addChangeListener(this);
+    }
+
+    // First key of every page, in key order. Runs off the EDT.
+    protected abstract List<K> loadPageKeys(int pageSize);
+
+    protected abstract int loadRowCount();
+
+    // Up to limit rows whose key is >= fromKey, in key order. Runs off the EDT.
+    protected abstract Object[][] loadPage(K fromKey, int limit);
+
+    // The current row for one key, or null if it no longer belongs in this table. Runs off the EDT.
+    protected abstract Object[] loadRow(K key);
+
+    // The row for a changed object carried by an event, or null if it does not belong in this table
+    protected abstract Object[] toRow(Object changed);
+
+    // Re-reads the page index and drops every cached page
+    public void refresh() {
+        indexLoad.load(() -> new PageIndex<>(loadPageKeys(pageSize), loadRowCount()), index -> {
+            generation++;
+            int pageCount = index.keys.size();
+            pageKeys = new ArrayList<>(index.keys);
+            pageStarts = new int[pageCount];
+            pageCounts = new int[pageCount];
+            for (int page = 0; page < pageCount; page++) {
+                pageStarts[page] = page * pageSize;
+                pageCounts[page] = Math.min(pageSize, index.rowCount - page * pageSize);
+            }
+            rowCount = index.rowCount;
+            indexLoaded = true;
+            pages.clear();
+            pendingPages.clear();
+            fireTableDataChanged();
+        });
+    }
+
+    // Stops listening for changes; call when the table is thrown away
+    public void close() {
+        Database.removeChangeListener(this);
+        indexLoad.cancel();
+    }
+
+    @Override
+    public int getRowCount() {
+        return indexLoaded ? rowCount : 1;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (!indexLoaded || row >= rowCount) {
+            return column == 0 ? LOADING : null;
+        }
+        int page = pageOfRow(row);
+        List<Object[]> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return column == 0 ? LOADING : null;
+        }
+        int offset = row - pageStarts[page];
+        return offset < rows.size() ? rows.get(offset)[column] : null;
+    }
+
+    private void requestPage(int page) {
+        if (!pendingPages.add(page)) {
+            return;
+        }
+        int requestedGeneration = generation;
+        K fromKey = pageKeys.get(page);
+        int limit = pageCounts[page];
+        AsyncDatabase.load(() -> loadPage(fromKey, limit), rows -> {
+            if (requestedGeneration != generation) {
+                return;
+            }
+            pendingPages.remove(page);
+            int first = pageStarts[page];
+            if (page >= pageKeys.size() || limit != pageCounts[page] || !fromKey.equals(pageKeys.get(page))) {
+                // The page was edited while loading; repainting asks for it again with its new bounds
+                int last = Math.min(rowCount, first + pageCounts[page]) - 1;
+                if (last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+                return;
+            }
+            pages.put(page, new ArrayList<>(Arrays.asList(rows)));
+            int last = Math.min(rowCount, first + pageCounts[page]) - 1;
+            if (last >= first) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, error -> {
+            // Already logged; the next repaint of these rows asks for the page again
+            if (requestedGeneration == generation) {
+                pendingPages.remove(page);
+            }
+        });
+    }
+
+    @Override
+    public void dataChanged(DataChangeEvent event) {
+        if (event.getEntity() != entity) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> apply(event));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(DataChangeEvent event) {
+        if (!indexLoaded || event.getType() == DataChangeEvent.Type.RELOADED) {
+            refresh();
+            return;
+        }
+
+        K key = (K) event.getKey();
+        switch (event.getType()) {
+            case INSERTED:
+                Object[] inserted = toRow(event.getRow());
+                if (inserted != null) {
+                    insertRow(key, inserted);
+                }
+                break;
+            case DELETED:
+                deleteRow(key);
+                break;
+            case UPDATED:
+                if (event.getRow() != null) {
+                    applyUpdate(key, toRow(event.getRow()));
+                } else {
+                    int requestedGeneration = generation;
+                    AsyncDatabase.load(() -> Optional.ofNullable(loadRow(key)), row -> {
+                        if (requestedGeneration == generation) {
+                            applyUpdate(key, row.orElse(null));
+                        }
+                    });
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void applyUpdate(K key, Object[] row) {
+        if (row == null) {
+            // The change moved the row out of this table (e.g. an employee promoted to HR)
+            deleteRow(key);
+            return;
+        }
+        int page = pageOfKey(key);
+        List<Object[]> rows = page < 0 ? null : pages.get(page);
+        if (rows == null) {
+            return; // Not on screen; the page will be read fresh when it is next shown
+        }
+        int offset = indexOfKey(rows, key);
+        if (offset >= 0) {
+            rows.set(offset, row);
+            fireTableRowsUpdated(pageStarts[page] + offset, pageStarts[page] + offset);
+        } else {
+            // The change moved the row into this table
+            insertRow(key, row);
+        }
+    }
+
+    private void insertRow(K key, Object[] row) {
+        int page = pageOfKey(key);
+        if (page < 0) {
+            if (pageKeys.isEmpty()) {
+                addPage(key);
+                page = 0;
+            } else {
+                // New smallest key: it becomes the start of the first page
+                page = 0;
+                pageKeys.set(0, key);
+            }
+        } else if (page == pageKeys.size() - 1 && pageCounts[page] >= pageSize && pages.get(page) != null
+                && key.compareTo(lastKey(pages.get(page))) > 0) {
+            // Appending past a full last page (the usual case for new task ids) starts a new page
+            addPage(key);
+            page = pageKeys.size() - 1;
+        }
+
+        int row0 = pageStarts[page];
+        List<Object[]> rows = pages.get(page);
+        int offset;
+        if (rows != null) {
+            offset = insertionPoint(rows, key);
+            rows.add(offset, row);
+        } else {
+            // Position inside an unloaded page is unknown; it only matters once the page is read
+            offset = pageCounts[page];
+        }
+        pageCounts[page]++;
+        shiftStarts(page + 1, 1);
+        rowCount++;
+        fireTableRowsInserted(row0 + offset, row0 + offset);
+    }
+
+    private void deleteRow(K key) {
+        int page = pageOfKey(key);
+        if (page < 0 || pageCounts[page] == 0) {
+            return;
+        }
+        List<Object[]> rows = pages.get(page);
+        if (rows == null) {
+            recountAfterDelete(key);
+            return;
+        }
+        int offset = indexOfKey(rows, key);
+        if (offset < 0) {
+            return;
+        }
+        rows.remove(offset);
+        removeRow(page, offset);
+    }
+
+    // A delete carries no row, so when the key's page is not loaded there is no telling whether
+    // the key was ever in this table (e.g. an HR user deleted under the employee view). Count
+    // again and only drop a row if the table really shrank; anything else re-reads the index.
+    private void recountAfterDelete(K key) {
+        int requestedGeneration = generation;
+        AsyncDatabase.load(this::loadRowCount, count -> {
+            if (requestedGeneration != generation || count == rowCount) {
+                return;
+            }
+            int page = pageOfKey(key);
+            if (count != rowCount - 1 || page < 0 || pageCounts[page] == 0 || pages.containsKey(page)) {
+                refresh();
+                return;
+            }
+            removeRow(page, pageCounts[page] - 1);
+        }, error -> refresh());
+    }
+
+    private void removeRow(int page, int offset) {
+        pageCounts[page]--;
+        shiftStarts(page + 1, -1);
+        rowCount--;
+        int row = pageStarts[page] + offset;
+        fireTableRowsDeleted(row, row);
+    }
+
+    private void addPage(K key) {
+        int page = pageKeys.size();
+        pageKeys.add(key);
+        pageStarts = Arrays.copyOf(pageStarts, page + 1);
+        pageCounts = Arrays.copyOf(pageCounts, page + 1);
+        pageStarts[page] = rowCount;
+        pageCounts[page] = 0;
+    }
+
+    private void shiftStarts(int fromPage, int delta) {
+        for (int page = fromPage; page < pageStarts.length; page++) {
+            pageStarts[page] += delta;
+        }
+    }
+
+    // Last page whose first row is at or before the given row; empty pages share a start
+    // with the next page, so this always lands on the page that holds the row
+    private int pageOfRow(int row) {
+        int low = 0;
+        int high = pageStarts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pageStarts[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Last page whose first key is <= key, or -1 if the key sorts before every page
+    private int pageOfKey(K key) {
+        int low = 0;
+        int high = pageKeys.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (pageKeys.get(mid).compareTo(key) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int indexOfKey(List<Object[]> rows, K key) {
+        int index = insertionPoint(rows, key);
+        return index < rows.size() && ((K) rows.get(index)[0]).compareTo(key) == 0 ? index : -1;
+    }
+
+    // First position whose key is >= key
+    @SuppressWarnings("unchecked")
+    private int insertionPoint(List<Object[]> rows, K key) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (((K) rows.get(mid)[0]).compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K lastKey(List<Object[]> rows) {
+        return (K) rows.get(rows.size() - 1)[0];
+    }
+
+    private static class PageIndex<K> {
+        final List<K> keys;
+        final int rowCount;
+
+        PageIndex(List<K> keys, int rowCount) {
+            this.keys = keys;
+            this.rowCount = rowCount;
+        }
+    }
+}
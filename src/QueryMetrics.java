@@ -0,0 +1,193 @@
+package src;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Metrics for every public Database operation: calls, errors, rows and latency, published
+// through JMX (jconsole: MBeans > src) and written to a file on demand.
+//
+// Database runs each operation through time(). Errors and rows are attributed to the
+// operation running on the current thread, so the shared query helpers and reportError
+// record them without having to know which operation called them.
+public class QueryMetrics implements QueryMetricsMBean {
+    private static final String DOMAIN = "src";
+    private static final Map<String, OperationMetrics> operations = new ConcurrentSkipListMap<>();
+    private static final Map<String, Boolean> registered = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Timer> current = new ThreadLocal<>();
+    private static final QueryMetrics instance = new QueryMetrics();
+
+    static {
+        register(DOMAIN + ":type=DatabaseMetrics", instance);
+    }
+
+    private QueryMetrics() {
+    }
+
+    public static QueryMetrics getInstance() {
+        return instance;
+    }
+
+    // Runs call as one timed operation and returns its result. An exception that escapes the
+    // call counts as an error of the operation.
+    static <T, E extends Exception> T time(String operation, TimedCall<T, E> call) throws E {
+        Timer timer = start(operation);
+        try {
+            return call.call();
+        } catch (Exception | Error e) {
+            timer.failed = true;
+            throw e;
+        } finally {
+            timer.close();
+        }
+    }
+
+    static <E extends Exception> void time(String operation, TimedRun<E> run) throws E {
+        Timer timer = start(operation);
+        try {
+            run.run();
+        } catch (Exception | Error e) {
+            timer.failed = true;
+            throw e;
+        } finally {
+            timer.close();
+        }
+    }
+
+    private static Timer start(String operation) {
+        Timer timer = new Timer(metricsFor(operation), current.get());
+        current.set(timer);
+        return timer;
+    }
+
+    // Rows returned or affected by the operation running on this thread
+    static void addRows(long rows) {
+        Timer timer = current.get();
+        if (timer != null) {
+            timer.rows += rows;
+        }
+    }
+
+    static void markError() {
+        Timer timer = current.get();
+        if (timer != null) {
+            timer.failed = true;
+        }
+    }
+
+    public static OperationMetrics get(String operation) {
+        return operations.get(operation);
+    }
+
+    private static OperationMetrics metricsFor(String operation) {
+        OperationMetrics metrics = operations.get(operation);
+        if (metrics == null) {
+            metrics = operations.computeIfAbsent(operation, OperationMetrics::new);
+            if (registered.putIfAbsent(operation, Boolean.TRUE) == null) {
+                register(DOMAIN + ":type=DatabaseOperation,name=" + ObjectName.quote(operation), metrics);
+            }
+        }
+        return metrics;
+    }
+
+    private static void register(String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String[] getOperations() {
+        return operations.keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public long getBusyErrorCount() {
+        return Database.getBusyErrorCount();
+    }
+
+    @Override
+    public String dump(String path) {
+        Path file = Paths.get(path).toAbsolutePath();
+        try {
+            dumpTo(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write metrics to " + file + ": " + e.getMessage(), e);
+        }
+        return file.toString();
+    }
+
+    public static void dumpTo(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.printf("# Database metrics at %s, SQLITE_BUSY errors: %d%n", Instant.now(),
+                    Database.getBusyErrorCount());
+            out.printf("%-24s %10s %8s %12s %10s %10s %10s %10s %10s %10s%n", "operation", "calls", "errors", "rows",
+                    "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (OperationMetrics metrics : operations.values()) {
+                out.printf("%-24s %10d %8d %12d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f%n", metrics.getOperation(),
+                        metrics.getCallCount(), metrics.getErrorCount(), metrics.getRowCount(),
+                        metrics.getMeanMillis(), metrics.getP50Millis(), metrics.getP90Millis(),
+                        metrics.getP99Millis(), metrics.getP999Millis(), metrics.getMaxMillis());
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+    }
+
+    interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    interface TimedRun<E extends Exception> {
+        void run() throws E;
+    }
+
+    // One timed call. Timers nest: an operation that calls another public operation gets
+    // its own timing back when the inner one closes.
+    private static class Timer {
+        private final OperationMetrics metrics;
+        private final Timer outer;
+        private final long started = System.nanoTime();
+        private long rows;
+        private boolean failed;
+
+        private Timer(OperationMetrics metrics, Timer outer) {
+            this.metrics = metrics;
+            this.outer = outer;
+        }
+
+        private void close() {
+            metrics.record(System.nanoTime() - started, rows, failed);
+            if (outer == null) {
+                current.remove();
+            } else {
+                current.set(outer);
+            }
+        }
+    }
+}
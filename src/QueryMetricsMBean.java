@@ -0,0 +1,13 @@
+package src;
+
+// JMX entry point for Database metrics, registered as src:type=DatabaseMetrics
+public interface QueryMetricsMBean {
+    String[] getOperations();
+
+    long getBusyErrorCount();
+
+    // Writes a table of every operation's metrics to the given file and returns its absolute path
+    String dump(String path);
+
+    void reset();
+}
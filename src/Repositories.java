@@ -0,0 +1,50 @@
+package src;
+
+// The user and task repositories the app works against, chosen by database.engine at
+// startup. Defaults to SQLite so tools that never call open() keep using the database file.
+//
+// Not everything goes through these interfaces. With the MEMORY engine:
+//   - HR Export (BulkExporter) is unavailable: it streams straight from the SQLite file
+//   - HR Off-board Team (Offboarding) is unavailable: it archives and reassigns tasks in one
+//     SQLite transaction
+public class Repositories {
+    private static volatile UserRepository users = new SqliteUserRepository();
+    private static volatile TaskRepository tasks = new SqliteTaskRepository();
+    private static volatile DatabaseConfig.Engine engine = DatabaseConfig.Engine.SQLITE;
+
+    // Creates the repositories for the configured engine; for SQLite this also points
+    // Database at the configured file and creates/migrates its tables
+    public static synchronized void open(DatabaseConfig config) {
+        switch (config.getEngine()) {
+            case MEMORY:
+                users = new InMemoryUserRepository();
+                tasks = new InMemoryTaskRepository(users);
+                System.out.println("Using in-memory repositories; nothing will be saved");
+                engine = DatabaseConfig.Engine.MEMORY;
+                break;
+            case SQLITE:
+            default:
+                Database.configure(config);
+                Database.createTables();
+                users = new SqliteUserRepository();
+                tasks = new SqliteTaskRepository();
+                TaskCounters.scheduleDriftCheck(TaskCounters.DRIFT_CHECK_PERIOD_MINUTES);
+                engine = DatabaseConfig.Engine.SQLITE;
+                break;
+        }
+    }
+
+    // Tools that read the database file directly (BulkImporter, BulkExporter, Offboarding)
+    // only make sense when this is SQLITE
+    public static DatabaseConfig.Engine engine() {
+        return engine;
+    }
+
+    public static UserRepository users() {
+        return users;
+    }
+
+    public static TaskRepository tasks() {
+        return tasks;
+    }
+}
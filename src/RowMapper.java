@@ -0,0 +1,10 @@
+package src;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Turns the current row of a ResultSet into an object. Mappers are compiled against a
+// statement's column layout, so they read columns by index rather than by name.
+public interface RowMapper<T> {
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,134 @@
+package src;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registry of row mappers. The first time a query runs its column indexes are resolved
+// from the ResultSet metadata, and the compiled mapper is reused for every later row and call.
+public final class RowMappers {
+
+    // Builds a mapper for one statement, given where each named column lives
+    public interface Compiler<T> {
+        RowMapper<T> compile(Columns columns) throws SQLException;
+    }
+
+    public static final Compiler<Task> TASK = columns -> {
+        int id = columns.indexOf("task_id");
+        int title = columns.indexOf("title");
+        int description = columns.indexOf("description");
+        int status = columns.indexOf("status");
+        int assignedTo = columns.indexOf("assigned_to");
+        int manager = columns.indexOf("manager");
+        int feedback = columns.indexOf("feedback");
+        int version = columns.indexOfOptional("version");
+        return resultSet -> {
+            Task task = new Task(resultSet.getInt(id), resultSet.getString(title), resultSet.getString(description),
+                    TaskStatus.fromCode(resultSet.getInt(status)), resultSet.getString(assignedTo),
+                    resultSet.getString(manager), resultSet.getString(feedback));
+            if (version > 0) {
+                task.setVersion(resultSet.getInt(version));
+            }
+            return task;
+        };
+    };
+
+    public static final Compiler<User> USER = columns -> {
+        int username = columns.indexOf("username");
+        int password = columns.indexOf("password");
+        int role = columns.indexOf("role");
+        int firstName = columns.indexOf("first_name");
+        int lastName = columns.indexOf("last_name");
+        int department = columns.indexOf("department");
+        int jobTitle = columns.indexOf("job_title");
+        int email = columns.indexOf("email");
+        int version = columns.indexOfOptional("version");
+        return resultSet -> {
+            User user = new User(resultSet.getString(username), resultSet.getString(password),
+                    resultSet.getString(role), resultSet.getString(firstName), resultSet.getString(lastName),
+                    resultSet.getString(department), resultSet.getString(jobTitle), resultSet.getString(email));
+            if (version > 0) {
+                user.setVersion(resultSet.getInt(version));
+            }
+            return user;
+        };
+    };
+
+    public static final Compiler<String> FIRST_STRING = columns -> resultSet -> resultSet.getString(1);
+
+    public static final Compiler<Integer> FIRST_INT = columns -> resultSet -> resultSet.getInt(1);
+
+    // Copies every selected column, in order, into an Object[] (used by the HR tables)
+    public static final Compiler<Object[]> ARRAY = columns -> {
+        int count = columns.size();
+        return resultSet -> {
+            Object[] row = new Object[count];
+            for (int i = 0; i < count; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            return row;
+        };
+    };
+
+    // Like ARRAY, with the status column turned from its code into a TaskStatus (HR task grid)
+    public static final Compiler<Object[]> TASK_ROW = columns -> {
+        RowMapper<Object[]> array = ARRAY.compile(columns);
+        int status = columns.indexOf("status");
+        return resultSet -> {
+            Object[] row = array.mapRow(resultSet);
+            row[status - 1] = TaskStatus.fromCode(resultSet.getInt(status));
+            return row;
+        };
+    };
+
+    private static final Map<Compiler<?>, Map<String, RowMapper<?>>> compiled = new ConcurrentHashMap<>();
+
+    private RowMappers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> forQuery(String sql, ResultSet resultSet, Compiler<T> compiler)
+            throws SQLException {
+        Map<String, RowMapper<?>> bySql = compiled.computeIfAbsent(compiler, c -> new ConcurrentHashMap<>());
+        RowMapper<?> mapper = bySql.get(sql);
+        if (mapper == null) {
+            mapper = compiler.compile(new Columns(resultSet.getMetaData()));
+            bySql.put(sql, mapper);
+        }
+        return (RowMapper<T>) mapper;
+    }
+
+    public static final class Columns {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final int size;
+
+        Columns(ResultSetMetaData metaData) throws SQLException {
+            size = metaData.getColumnCount();
+            for (int i = 1; i <= size; i++) {
+                indexes.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        public int indexOf(String column) throws SQLException {
+            Integer index = indexes.get(column.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("Column not found in result: " + column);
+            }
+            return index;
+        }
+
+        // 0 when the query did not select the column
+        public int indexOfOptional(String column) {
+            Integer index = indexes.get(column.toLowerCase(Locale.ROOT));
+            return index == null ? 0 : index;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+}
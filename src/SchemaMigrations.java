@@ -0,0 +1,362 @@
+package src;
+
+import java.sql.*;
+import java.util.List;
+
+// Versioned schema upgrades. The applied version is kept in SQLite's PRAGMA user_version,
+// and each step runs in its own transaction so a failed upgrade leaves the file untouched.
+// Foreign keys are not enforced while steps run, since rebuilding a table drops and renames
+// it; they are checked once all steps are done.
+public class SchemaMigrations {
+
+    private interface Migration {
+        void apply(Statement statement) throws SQLException;
+    }
+
+    // Append new steps to the end; never edit or reorder a step that has shipped.
+    private static final List<Migration> MIGRATIONS = List.of(
+            // 1: case-insensitive lookup indexes for login, signup and the dashboards
+            statement -> {
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_user_username_nocase "
+                        + "ON user (username COLLATE NOCASE)");
+                createTaskIndexes(statement);
+            },
+            // 2: full-text index over task title, description and feedback, kept in sync by triggers
+            statement -> {
+                statement.execute("CREATE VIRTUAL TABLE IF NOT EXISTS task_fts USING fts5("
+                        + "title, description, feedback, content='task', content_rowid='task_id')");
+                statement.execute("INSERT INTO task_fts (task_fts) VALUES ('rebuild')");
+                createTaskFtsTriggers(statement);
+            },
+            // 3: row versions, bumped by every update, for compare-and-set edits
+            statement -> {
+                statement.execute("ALTER TABLE task ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+                statement.execute("ALTER TABLE user ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+            },
+            // 4: task counts per department/status and employee/status, kept current by triggers
+            statement -> {
+                statement.execute("CREATE TABLE IF NOT EXISTS task_count_by_department ("
+                        + "department TEXT NOT NULL, status TEXT NOT NULL, count INTEGER NOT NULL, "
+                        + "PRIMARY KEY (department, status)) WITHOUT ROWID");
+                statement.execute("CREATE TABLE IF NOT EXISTS task_count_by_employee ("
+                        + "username TEXT NOT NULL COLLATE NOCASE, status TEXT NOT NULL, count INTEGER NOT NULL, "
+                        + "PRIMARY KEY (username, status)) WITHOUT ROWID");
+                createTaskCounterTriggers(statement);
+                // A task counts toward its assignee's department, or '' if there is none, so
+                // user changes move that employee's counts between departments
+                statement.execute("CREATE TRIGGER IF NOT EXISTS task_counts_user_department "
+                        + "AFTER UPDATE OF department ON user BEGIN "
+                        + moveEmployeeCounts("old.username", "COALESCE(old.department, '')",
+                                "COALESCE(new.department, '')")
+                        + "END");
+                statement.execute("CREATE TRIGGER IF NOT EXISTS task_counts_user_insert AFTER INSERT ON user BEGIN "
+                        + moveEmployeeCounts("new.username", "''", "COALESCE(new.department, '')") + "END");
+                statement.execute("CREATE TRIGGER IF NOT EXISTS task_counts_user_delete AFTER DELETE ON user BEGIN "
+                        + moveEmployeeCounts("old.username", "COALESCE(old.department, '')", "''") + "END");
+                rebuildTaskCountsByUsername(statement);
+            },
+            // 5: task.status becomes a TaskStatus code (INTEGER) instead of its label. SQLite cannot
+            // change a column's type, so the table is rebuilt with the same ids, then its indexes
+            // and triggers (dropped with the old table) are recreated.
+            statement -> {
+                statement.execute("CREATE TABLE task_new ("
+                        + "task_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                        + "title TEXT NOT NULL,"
+                        + "description TEXT NOT NULL,"
+                        + "status INTEGER NOT NULL CHECK(status BETWEEN 0 AND 3),"
+                        + "assigned_to TEXT COLLATE NOCASE,"
+                        + "manager TEXT COLLATE NOCASE,"
+                        + "feedback TEXT,"
+                        + "version INTEGER NOT NULL DEFAULT 0,"
+                        + "FOREIGN KEY (assigned_to) REFERENCES user (username),"
+                        + "FOREIGN KEY (manager) REFERENCES user (username))");
+                statement.execute("INSERT INTO task_new (task_id, title, description, status, assigned_to, "
+                        + "manager, feedback, version) SELECT task_id, title, description, CASE status "
+                        + "WHEN 'Assigned' THEN 0 WHEN 'Accepted' THEN 1 WHEN 'Rejected' THEN 2 WHEN 'Completed' "
+                        + "THEN 3 END, assigned_to, manager, feedback, version FROM task");
+                // Keep AUTOINCREMENT from handing out ids of tasks deleted from the end
+                statement.execute("UPDATE sqlite_sequence SET seq = "
+                        + "MAX(seq, COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'task'), 0)) "
+                        + "WHERE name = 'task_new'");
+                statement.execute("DROP TABLE task");
+                statement.execute("ALTER TABLE task_new RENAME TO task");
+                createTaskIndexes(statement);
+                createTaskFtsTriggers(statement);
+
+                // The counters hold status codes too
+                statement.execute("DROP TABLE task_count_by_department");
+                statement.execute("DROP TABLE task_count_by_employee");
+                statement.execute("CREATE TABLE task_count_by_department ("
+                        + "department TEXT NOT NULL, status INTEGER NOT NULL, count INTEGER NOT NULL, "
+                        + "PRIMARY KEY (department, status)) WITHOUT ROWID");
+                statement.execute("CREATE TABLE task_count_by_employee ("
+                        + "username TEXT NOT NULL COLLATE NOCASE, status INTEGER NOT NULL, count INTEGER NOT NULL, "
+                        + "PRIMARY KEY (username, status)) WITHOUT ROWID");
+                createTaskCounterTriggers(statement);
+                rebuildTaskCountsByUsername(statement);
+            },
+            // 6: task.assigned_to and task.manager become user_id references (assigned_to_id,
+            // manager_id) instead of copies of the username. Names that match no user become NULL
+            // and are reported. Reads get the usernames back through the task_with_names view.
+            statement -> {
+                statement.execute("CREATE TABLE task_new ("
+                        + "task_id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                        + "title TEXT NOT NULL,"
+                        + "description TEXT NOT NULL,"
+                        + "status INTEGER NOT NULL CHECK(status BETWEEN 0 AND 3),"
+                        + "assigned_to_id INTEGER REFERENCES user (user_id),"
+                        + "manager_id INTEGER REFERENCES user (user_id),"
+                        + "feedback TEXT,"
+                        + "version INTEGER NOT NULL DEFAULT 0)");
+                statement.execute("INSERT INTO task_new (task_id, title, description, status, assigned_to_id, "
+                        + "manager_id, feedback, version) SELECT task_id, title, description, status, "
+                        + userIdOf("assigned_to") + ", " + userIdOf("manager") + ", feedback, version FROM task");
+                try (ResultSet resultSet = statement.executeQuery("SELECT "
+                        + "(SELECT COUNT(*) FROM task WHERE assigned_to IS NOT NULL) "
+                        + "- (SELECT COUNT(*) FROM task_new WHERE assigned_to_id IS NOT NULL), "
+                        + "(SELECT COUNT(*) FROM task WHERE manager IS NOT NULL) "
+                        + "- (SELECT COUNT(*) FROM task_new WHERE manager_id IS NOT NULL)")) {
+                    if (resultSet.next() && resultSet.getInt(1) + resultSet.getInt(2) > 0) {
+                        System.err.println("Cleared " + resultSet.getInt(1) + " assignees and " + resultSet.getInt(2)
+                                + " managers naming users that no longer exist");
+                    }
+                }
+                statement.execute("UPDATE sqlite_sequence SET seq = "
+                        + "MAX(seq, COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'task'), 0)) "
+                        + "WHERE name = 'task_new'");
+                statement.execute("DROP TABLE task");
+                statement.execute("ALTER TABLE task_new RENAME TO task");
+                statement.execute("CREATE INDEX idx_task_assigned_to ON task (assigned_to_id, status)");
+                statement.execute("CREATE INDEX idx_task_manager ON task (manager_id, status)");
+                statement.execute("CREATE INDEX idx_task_status ON task (status)");
+                createTaskFtsTriggers(statement);
+                statement.execute("CREATE VIEW task_with_names AS SELECT t.*, a.username AS assigned_to, "
+                        + "m.username AS manager FROM task t "
+                        + "LEFT JOIN user a ON a.user_id = t.assigned_to_id "
+                        + "LEFT JOIN user m ON m.user_id = t.manager_id");
+
+                // Employee counters are keyed by user_id now. A new user cannot own tasks yet,
+                // so only department changes and deletes move counts.
+                statement.execute("DROP TABLE task_count_by_employee");
+                statement.execute("CREATE TABLE task_count_by_employee ("
+                        + "user_id INTEGER NOT NULL, status INTEGER NOT NULL, count INTEGER NOT NULL, "
+                        + "PRIMARY KEY (user_id, status)) WITHOUT ROWID");
+                statement.execute("CREATE TRIGGER task_counts_insert AFTER INSERT ON task BEGIN "
+                        + addTaskCountById("new", 1) + "END");
+                statement.execute("CREATE TRIGGER task_counts_delete AFTER DELETE ON task BEGIN "
+                        + addTaskCountById("old", -1) + "END");
+                statement.execute("CREATE TRIGGER task_counts_update "
+                        + "AFTER UPDATE OF status, assigned_to_id ON task BEGIN "
+                        + addTaskCountById("old", -1) + addTaskCountById("new", 1) + "END");
+                statement.execute("DROP TRIGGER task_counts_user_department");
+                statement.execute("DROP TRIGGER task_counts_user_insert");
+                statement.execute("DROP TRIGGER task_counts_user_delete");
+                statement.execute("CREATE TRIGGER task_counts_user_department "
+                        + "AFTER UPDATE OF department ON user BEGIN "
+                        + moveEmployeeCountsById("old.user_id", "COALESCE(old.department, '')",
+                                "COALESCE(new.department, '')")
+                        + "END");
+                statement.execute("CREATE TRIGGER task_counts_user_delete AFTER DELETE ON user BEGIN "
+                        + moveEmployeeCountsById("old.user_id", "COALESCE(old.department, '')", "''") + "END");
+                TaskCounters.rebuild(statement);
+            },
+            // 7: archive for tasks of off-boarded users (see Offboarding). Foreign keys are now
+            // enforced, so ids left behind by users deleted before this step are cleared.
+            statement -> {
+                statement.execute("CREATE TABLE task_archive ("
+                        + "task_id INTEGER PRIMARY KEY,"
+                        + "title TEXT NOT NULL,"
+                        + "description TEXT NOT NULL,"
+                        + "status INTEGER NOT NULL,"
+                        + "assigned_to TEXT,"
+                        + "manager TEXT,"
+                        + "feedback TEXT,"
+                        + "version INTEGER NOT NULL,"
+                        + "archived_at TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+                try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM task "
+                        + "WHERE assigned_to_id NOT IN (SELECT user_id FROM user) "
+                        + "OR manager_id NOT IN (SELECT user_id FROM user)")) {
+                    if (resultSet.next() && resultSet.getInt(1) > 0) {
+                        System.err.println("Cleared deleted users from " + resultSet.getInt(1) + " tasks");
+                    }
+                }
+                statement.execute("UPDATE task SET assigned_to_id = NULL "
+                        + "WHERE assigned_to_id NOT IN (SELECT user_id FROM user)");
+                statement.execute("UPDATE task SET manager_id = NULL "
+                        + "WHERE manager_id NOT IN (SELECT user_id FROM user)");
+            });
+
+    // The helpers below are shared by the steps that first created these objects and by
+    // step 5, which recreates them on the rebuilt task table. Changing one changes what
+    // those steps do: add a new step instead.
+
+    private static void createTaskIndexes(Statement statement) throws SQLException {
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_task_assigned_to "
+                + "ON task (assigned_to COLLATE NOCASE, status)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_task_manager "
+                + "ON task (manager COLLATE NOCASE, status)");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_task_status ON task (status)");
+    }
+
+    private static void createTaskFtsTriggers(Statement statement) throws SQLException {
+        statement.execute("CREATE TRIGGER IF NOT EXISTS task_fts_insert AFTER INSERT ON task BEGIN "
+                + "INSERT INTO task_fts (rowid, title, description, feedback) "
+                + "VALUES (new.task_id, new.title, new.description, new.feedback); END");
+        statement.execute("CREATE TRIGGER IF NOT EXISTS task_fts_delete AFTER DELETE ON task BEGIN "
+                + "INSERT INTO task_fts (task_fts, rowid, title, description, feedback) "
+                + "VALUES ('delete', old.task_id, old.title, old.description, old.feedback); END");
+        statement.execute("CREATE TRIGGER IF NOT EXISTS task_fts_update "
+                + "AFTER UPDATE OF title, description, feedback ON task BEGIN "
+                + "INSERT INTO task_fts (task_fts, rowid, title, description, feedback) "
+                + "VALUES ('delete', old.task_id, old.title, old.description, old.feedback); "
+                + "INSERT INTO task_fts (rowid, title, description, feedback) "
+                + "VALUES (new.task_id, new.title, new.description, new.feedback); END");
+    }
+
+    private static void createTaskCounterTriggers(Statement statement) throws SQLException {
+        statement.execute("CREATE TRIGGER IF NOT EXISTS task_counts_insert AFTER INSERT ON task BEGIN "
+                + addTaskCount("new", 1) + "END");
+        statement.execute("CREATE TRIGGER IF NOT EXISTS task_counts_delete AFTER DELETE ON task BEGIN "
+                + addTaskCount("old", -1) + "END");
+        statement.execute("CREATE TRIGGER IF NOT EXISTS task_counts_update "
+                + "AFTER UPDATE OF status, assigned_to ON task BEGIN "
+                + addTaskCount("old", -1) + addTaskCount("new", 1) + "END");
+    }
+
+    // Trigger body adding delta to the counters for the task row `row` (new or old)
+    private static String addTaskCount(String row, int delta) {
+        return "INSERT INTO task_count_by_department (department, status, count) VALUES ("
+                + "COALESCE((SELECT department FROM user WHERE username = " + row + ".assigned_to COLLATE NOCASE), ''), "
+                + row + ".status, " + delta + ") "
+                + "ON CONFLICT (department, status) DO UPDATE SET count = count + excluded.count; "
+                + "INSERT INTO task_count_by_employee (username, status, count) SELECT " + row + ".assigned_to, "
+                + row + ".status, " + delta + " WHERE " + row + ".assigned_to IS NOT NULL "
+                + "ON CONFLICT (username, status) DO UPDATE SET count = count + excluded.count; ";
+    }
+
+    // Trigger body moving one employee's task counts from one department to another
+    private static String moveEmployeeCounts(String username, String fromDepartment, String toDepartment) {
+        return "UPDATE task_count_by_department SET count = count - COALESCE((SELECT e.count "
+                + "FROM task_count_by_employee e WHERE e.username = " + username
+                + " AND e.status = task_count_by_department.status), 0) WHERE department = " + fromDepartment + "; "
+                + "INSERT INTO task_count_by_department (department, status, count) SELECT " + toDepartment
+                + ", status, count FROM task_count_by_employee WHERE username = " + username + " "
+                + "ON CONFLICT (department, status) DO UPDATE SET count = count + excluded.count; ";
+    }
+
+    // Counters as steps 4 and 5 computed them, from the username columns of that time
+    private static void rebuildTaskCountsByUsername(Statement statement) throws SQLException {
+        statement.execute("DELETE FROM task_count_by_department");
+        statement.execute("DELETE FROM task_count_by_employee");
+        statement.execute("INSERT INTO task_count_by_department (department, status, count) "
+                + "SELECT COALESCE(u.department, ''), t.status, COUNT(*) FROM task t "
+                + "LEFT JOIN user u ON u.username = t.assigned_to COLLATE NOCASE GROUP BY 1, 2");
+        statement.execute("INSERT INTO task_count_by_employee (username, status, count) "
+                + "SELECT assigned_to, status, COUNT(*) FROM task WHERE assigned_to IS NOT NULL "
+                + "GROUP BY assigned_to, status");
+    }
+
+    // user_id for the username in column, preferring an exact match over one differing in case
+    private static String userIdOf(String column) {
+        return "COALESCE((SELECT user_id FROM user WHERE username = task." + column + "), "
+                + "(SELECT MIN(user_id) FROM user WHERE username = task." + column + " COLLATE NOCASE))";
+    }
+
+    // Steps 6 on: like addTaskCount and moveEmployeeCounts, with tasks and counters
+    // referring to users by user_id
+
+    private static String addTaskCountById(String row, int delta) {
+        return "INSERT INTO task_count_by_department (department, status, count) VALUES ("
+                + "COALESCE((SELECT department FROM user WHERE user_id = " + row + ".assigned_to_id), ''), "
+                + row + ".status, " + delta + ") "
+                + "ON CONFLICT (department, status) DO UPDATE SET count = count + excluded.count; "
+                + "INSERT INTO task_count_by_employee (user_id, status, count) SELECT " + row + ".assigned_to_id, "
+                + row + ".status, " + delta + " WHERE " + row + ".assigned_to_id IS NOT NULL "
+                + "ON CONFLICT (user_id, status) DO UPDATE SET count = count + excluded.count; ";
+    }
+
+    private static String moveEmployeeCountsById(String userId, String fromDepartment, String toDepartment) {
+        return "UPDATE task_count_by_department SET count = count - COALESCE((SELECT e.count "
+                + "FROM task_count_by_employee e WHERE e.user_id = " + userId
+                + " AND e.status = task_count_by_department.status), 0) WHERE department = " + fromDepartment + "; "
+                + "INSERT INTO task_count_by_department (department, status, count) SELECT " + toDepartment
+                + ", status, count FROM task_count_by_employee WHERE user_id = " + userId + " "
+                + "ON CONFLICT (department, status) DO UPDATE SET count = count + excluded.count; ";
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.size();
+    }
+
+    public static void migrate(Connection connection) throws SQLException {
+        int current = currentVersion(connection);
+        if (current > MIGRATIONS.size()) {
+            throw new SQLException("Database schema version " + current
+                    + " is newer than this application supports (" + MIGRATIONS.size() + ")");
+        }
+
+        if (current == MIGRATIONS.size()) {
+            return;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        try (Statement statement = connection.createStatement()) {
+            // foreign_keys cannot change inside a transaction, so this comes first
+            boolean foreignKeys = foreignKeysEnabled(statement);
+            statement.execute("PRAGMA foreign_keys = OFF");
+            connection.setAutoCommit(false);
+            try {
+                applyMigrations(connection, statement, current);
+            } finally {
+                connection.setAutoCommit(true);
+                if (foreignKeys) {
+                    statement.execute("PRAGMA foreign_keys = ON");
+                }
+            }
+            reportForeignKeyViolations(statement);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void applyMigrations(Connection connection, Statement statement, int current)
+            throws SQLException {
+        for (int version = current; version < MIGRATIONS.size(); version++) {
+            try {
+                MIGRATIONS.get(version).apply(statement);
+                statement.execute("PRAGMA user_version = " + (version + 1));
+                connection.commit();
+                System.out.println("Schema migrated to version " + (version + 1));
+            } catch (SQLException e) {
+                connection.rollback();
+                throw new SQLException("Schema migration to version " + (version + 1) + " failed: "
+                        + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static boolean foreignKeysEnabled(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("PRAGMA foreign_keys")) {
+            return resultSet.next() && resultSet.getInt(1) == 1;
+        }
+    }
+
+    // The steps above keep references valid; this only reports rows that were already broken
+    private static void reportForeignKeyViolations(Statement statement) throws SQLException {
+        int violations = 0;
+        try (ResultSet resultSet = statement.executeQuery("PRAGMA foreign_key_check")) {
+            while (resultSet.next()) {
+                violations++;
+            }
+        }
+        if (violations > 0) {
+            System.err.println(violations + " rows refer to rows that do not exist (PRAGMA foreign_key_check)");
+        }
+    }
+
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+}
@@ -148,8 +148,17 @@ public class SignupGUI extends JFrame implements ActionListener {
             confirmPasswordField.setText("");
             return;
         }
-        boolean added = Database.addUser(username, confirmPassword, (String) comboBox.getSelectedItem(), firstName,
-                lastName, departmentName, jobTitle, email);
+        String role = (String) comboBox.getSelectedItem();
+        signupButton.setEnabled(false);
+        AsyncDatabase.load(() -> Repositories.users().addUser(username, confirmPassword, role, firstName, lastName,
+                departmentName, jobTitle, email), this::showSignupResult, error -> {
+                    AsyncDatabase.showError(this, error);
+                    signupButton.setEnabled(true);
+                });
+    }
+
+    private void showSignupResult(boolean added) {
+        signupButton.setEnabled(true);
         if (!added) {
             JOptionPane.showMessageDialog(this, "Username is taken!");
             usernameField.setText("");
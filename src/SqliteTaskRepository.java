@@ -0,0 +1,98 @@
+package src;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Tasks stored in the SQLite database configured by DatabaseConfig
+public class SqliteTaskRepository implements TaskRepository {
+
+    @Override
+    public boolean createTaskDB(Task task) {
+        return Database.createTaskDB(task);
+    }
+
+    @Override
+    public UpdateResult updateTaskStatus(int taskId, TaskStatus newStatus) {
+        return Database.updateTaskStatus(taskId, newStatus);
+    }
+
+    @Override
+    public UpdateResult updateTask(Task task) {
+        return Database.updateTask(task);
+    }
+
+    @Override
+    public boolean deleteTask(int taskId) {
+        return Database.deleteTask(taskId);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> queueStatusChange(int taskId, TaskStatus newStatus) {
+        return Database.queueTaskStatus(taskId, newStatus);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> queueDelete(int taskId) {
+        return Database.queueDeleteTask(taskId);
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        return Database.getTask(taskId);
+    }
+
+    @Override
+    public List<Task> getEmployeeTasks(String username) {
+        return Database.getEmployeeTasks(username);
+    }
+
+    @Override
+    public List<Task> getManagerTasks(String username) {
+        return Database.getManagerTasks(username);
+    }
+
+    @Override
+    public EmployeeDashboard getEmployeeDashboard(String username) {
+        return Database.getEmployeeDashboard(username);
+    }
+
+    @Override
+    public int countTasksWithStatus(TaskStatus status) {
+        return Database.countTasksWithStatus(status);
+    }
+
+    @Override
+    public TaskSummary getTaskSummary() {
+        return Database.getTaskSummary();
+    }
+
+    @Override
+    public Object[][] getAllTasks() {
+        return Database.getAllTasks();
+    }
+
+    @Override
+    public List<Integer> getTaskPageKeys(int pageSize) {
+        return Database.getTaskPageKeys(pageSize);
+    }
+
+    @Override
+    public Object[][] getTaskPage(int fromTaskId, int limit) {
+        return Database.getTaskPage(fromTaskId, limit);
+    }
+
+    @Override
+    public Object[] getTaskRow(int taskId) {
+        return Database.getTaskRow(taskId);
+    }
+
+    @Override
+    public int countTasks() {
+        return Database.countTasks();
+    }
+
+    @Override
+    public Object[][] searchTasks(String query, int limit, int offset) {
+        return Database.searchTasks(query, limit, offset);
+    }
+}
@@ -0,0 +1,63 @@
+package src;
+
+import java.util.List;
+
+// Users stored in the SQLite database configured by DatabaseConfig
+public class SqliteUserRepository implements UserRepository {
+
+    @Override
+    public boolean addUser(String username, String password, String role, String firstName, String lastName,
+            String department, String jobTitle, String email) {
+        return Database.addUser(username, password, role, firstName, lastName, department, jobTitle, email);
+    }
+
+    @Override
+    public boolean deleteUser(String username) {
+        return Database.deleteUser(username);
+    }
+
+    @Override
+    public User getUser(String username, String password) {
+        return Database.getUser(username, password);
+    }
+
+    @Override
+    public User getUserHR(String username) {
+        return Database.getUserHR(username);
+    }
+
+    @Override
+    public UpdateResult updateEmployee(User user) {
+        return Database.updateEmployee(user);
+    }
+
+    @Override
+    public List<String> getEmployeeUsernames() {
+        return Database.getEmployeeUsernames();
+    }
+
+    @Override
+    public Object[][] getAllEmployees() {
+        return Database.getAllEmployees();
+    }
+
+    @Override
+    public List<String> getEmployeePageKeys(int pageSize) {
+        return Database.getEmployeePageKeys(pageSize);
+    }
+
+    @Override
+    public Object[][] getEmployeePage(String fromUsername, int limit) {
+        return Database.getEmployeePage(fromUsername, limit);
+    }
+
+    @Override
+    public Object[] getEmployeeRow(String username) {
+        return Database.getEmployeeRow(username);
+    }
+
+    @Override
+    public int countEmployees() {
+        return Database.countEmployees();
+    }
+}
@@ -0,0 +1,50 @@
+package src;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Named sets of SQLite PRAGMAs applied to every pooled connection when it is opened.
+//
+// DURABLE     rollback journal, fsync on every commit: nothing committed is ever lost, but
+//             a writer blocks all readers. This is how the app behaved before profiles existed.
+// BALANCED    write-ahead log, fsync at checkpoints: readers never wait for writers and a crash
+//             of the app loses nothing; a power cut can lose the last few commits.
+// THROUGHPUT  write-ahead log without fsync and larger caches: for benchmarks, imports and
+//             throwaway copies. The OS crashing can corrupt the file.
+public enum StorageProfile {
+    DURABLE("DELETE", "FULL", 0, -2_000, "DEFAULT", 5_000),
+    BALANCED("WAL", "NORMAL", 64L * 1024 * 1024, -16_000, "MEMORY", 5_000),
+    THROUGHPUT("WAL", "OFF", 256L * 1024 * 1024, -64_000, "MEMORY", 10_000);
+
+    private final Map<String, String> pragmas;
+
+    // cacheSize follows PRAGMA cache_size: negative values are KiB, positive values pages
+    StorageProfile(String journalMode, String synchronous, long mmapSize, int cacheSize, String tempStore,
+            int busyTimeoutMillis) {
+        Map<String, String> pragmas = new LinkedHashMap<>();
+        // journal_mode first: switching it needs the connection to be otherwise idle
+        pragmas.put("journal_mode", journalMode);
+        pragmas.put("synchronous", synchronous);
+        pragmas.put("mmap_size", Long.toString(mmapSize));
+        pragmas.put("cache_size", Integer.toString(cacheSize));
+        pragmas.put("temp_store", tempStore);
+        pragmas.put("busy_timeout", Integer.toString(busyTimeoutMillis));
+        this.pragmas = Collections.unmodifiableMap(pragmas);
+    }
+
+    public Map<String, String> getPragmas() {
+        return pragmas;
+    }
+
+    // Case-insensitive lookup by name, e.g. "throughput"
+    public static StorageProfile fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown storage profile '" + name + "', expected one of "
+                    + Arrays.toString(values()).toLowerCase());
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package src;
 
+import java.util.Objects;
+
 public class Task {
+    // Bits in getDirtyFields(), one per column updateTask can write
+    public static final int TITLE = 1 << 0;
+    public static final int DESCRIPTION = 1 << 1;
+    public static final int STATUS = 1 << 2;
+    public static final int ASSIGNED_TO = 1 << 3;
+    public static final int MANAGER = 1 << 4;
+    public static final int FEEDBACK = 1 << 5;
+
     private int taskId;
     private String title;
     private String description;
-    private String status;
+    private TaskStatus status;
     private String assignedTo;
     private String manager;
     private String feedback;
+    // Bumped by every write; updateTask only succeeds if it still matches
+    private int version;
+    // Fields set to a new value since the object was loaded or last saved
+    private int dirtyFields;
 
     // Constructor
-    public Task(int taskId, String title, String description, String status, String assignedTo, String manager,
-            String feedback) {
+    public Task(int taskId, String title, String description, TaskStatus status, String assignedTo,
+            String manager, String feedback) {
         this.taskId = taskId;
         this.title = title;
         this.description = description;
@@ -21,7 +35,7 @@ public class Task {
         this.feedback = feedback;
     }
 
-    public Task(String title, String description, String status, String assignedTo, String manager,
+    public Task(String title, String description, TaskStatus status, String assignedTo, String manager,
             String feedback) {
         this.title = title;
         this.description = description;
@@ -31,6 +45,13 @@ public class Task {
         this.feedback = feedback;
     }
 
+    public Task(Task other) {
+        this(other.taskId, other.title, other.description, other.status, other.assignedTo, other.manager,
+                other.feedback);
+        this.version = other.version;
+        this.dirtyFields = other.dirtyFields;
+    }
+
     // Getters and setters
     public int getTaskId() {
         return taskId;
@@ -45,7 +66,10 @@ public class Task {
     }
 
     public void setTitle(String title) {
-        this.title = title;
+        if (!Objects.equals(this.title, title)) {
+            this.title = title;
+            dirtyFields |= TITLE;
+        }
     }
 
     public String getDescription() {
@@ -53,15 +77,21 @@ public class Task {
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            dirtyFields |= DESCRIPTION;
+        }
     }
 
-    public String getStatus() {
+    public TaskStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
-        this.status = status;
+    public void setStatus(TaskStatus status) {
+        if (!Objects.equals(this.status, status)) {
+            this.status = status;
+            dirtyFields |= STATUS;
+        }
     }
 
     public String getAssignedTo() {
@@ -69,7 +99,10 @@ public class Task {
     }
 
     public void setAssignedTo(String assignedTo) {
-        this.assignedTo = assignedTo;
+        if (!Objects.equals(this.assignedTo, assignedTo)) {
+            this.assignedTo = assignedTo;
+            dirtyFields |= ASSIGNED_TO;
+        }
     }
 
     public String getManager() {
@@ -77,7 +110,10 @@ public class Task {
     }
 
     public void setManager(String manager) {
-        this.manager = manager;
+        if (!Objects.equals(this.manager, manager)) {
+            this.manager = manager;
+            dirtyFields |= MANAGER;
+        }
     }
 
     public String getFeedback() {
@@ -85,7 +121,31 @@ public class Task {
     }
 
     public void setFeedback(String feedback) {
-        this.feedback = feedback;
+        if (!Objects.equals(this.feedback, feedback)) {
+            this.feedback = feedback;
+            dirtyFields |= FEEDBACK;
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    public boolean isDirty() {
+        return dirtyFields != 0;
+    }
+
+    // Called once the changes are saved
+    public void markClean() {
+        dirtyFields = 0;
     }
 
     @Override
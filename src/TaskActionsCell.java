@@ -0,0 +1,69 @@
+package src;
+
+import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Draws a row of buttons in a table cell and runs the matching action for the clicked row.
+// One instance serves every row of a table: the renderer panel is only painted, and the
+// editor panel is moved to whichever row the user clicks.
+public class TaskActionsCell extends AbstractCellEditor implements TableCellRenderer, TableCellEditor {
+    private final JPanel renderPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+    private final JPanel editPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+    private Task editingTask;
+
+    public TaskActionsCell(List<String> labels, List<Consumer<Task>> actions) {
+        for (int i = 0; i < labels.size(); i++) {
+            renderPanel.add(new JButton(labels.get(i)));
+
+            JButton button = new JButton(labels.get(i));
+            Consumer<Task> action = actions.get(i);
+            button.addActionListener(e -> {
+                Task task = editingTask;
+                // Stop editing first: the action may remove this row from the model
+                fireEditingStopped();
+                action.accept(task);
+            });
+            editPanel.add(button);
+        }
+    }
+
+    // Convenience for the common case of a single button
+    public static TaskActionsCell of(String label, Consumer<Task> action) {
+        return new TaskActionsCell(List.of(label), List.of(action));
+    }
+
+    public static TaskActionsCell of(String firstLabel, Consumer<Task> first, String secondLabel,
+            Consumer<Task> second) {
+        return new TaskActionsCell(List.of(firstLabel, secondLabel), List.of(first, second));
+    }
+
+    public void install(JTable table, int column) {
+        table.getColumnModel().getColumn(column).setCellRenderer(this);
+        table.getColumnModel().getColumn(column).setCellEditor(this);
+        table.setRowHeight(Math.max(table.getRowHeight(), renderPanel.getPreferredSize().height + 2));
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+            boolean hasFocus, int row, int column) {
+        renderPanel.setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
+        return renderPanel;
+    }
+
+    @Override
+    public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row,
+            int column) {
+        editingTask = (Task) value;
+        editPanel.setBackground(table.getSelectionBackground());
+        return editPanel;
+    }
+
+    @Override
+    public Object getCellEditorValue() {
+        return editingTask;
+    }
+}
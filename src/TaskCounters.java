@@ -0,0 +1,109 @@
+package src;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// The task_count_by_department and task_count_by_employee tables (schema migration 4) hold
+// how many tasks there are per department/status and per assignee/status, the assignee by
+// user_id since migration 6. Triggers on task and user keep them current on every write,
+// including bulk imports and queued writes, so summaries and counts read a handful of rows
+// however big the task table gets.
+//
+// The drift check recounts from the task table and rebuilds the counters if they disagree,
+// e.g. after someone edited the file with triggers disabled. Repositories.open schedules it.
+public final class TaskCounters {
+    public static final long DRIFT_CHECK_PERIOD_MINUTES = 60;
+
+    private static final String FRESH_BY_DEPARTMENT = "SELECT COALESCE(u.department, '') AS department, "
+            + "t.status AS status, COUNT(*) AS count FROM task t "
+            + "LEFT JOIN user u ON u.user_id = t.assigned_to_id GROUP BY 1, 2";
+    private static final String FRESH_BY_EMPLOYEE = "SELECT assigned_to_id AS user_id, status, COUNT(*) AS count "
+            + "FROM task WHERE assigned_to_id IS NOT NULL GROUP BY assigned_to_id, status";
+
+    // Rows in one that are missing or different in the other, ignoring zero counters
+    private static final String DRIFT = "SELECT "
+            + "(SELECT COUNT(*) FROM (" + FRESH_BY_DEPARTMENT + " EXCEPT SELECT department, status, count "
+            + "FROM task_count_by_department WHERE count <> 0)) + "
+            + "(SELECT COUNT(*) FROM (SELECT department, status, count FROM task_count_by_department "
+            + "WHERE count <> 0 EXCEPT " + FRESH_BY_DEPARTMENT + ")) + "
+            + "(SELECT COUNT(*) FROM (" + FRESH_BY_EMPLOYEE + " EXCEPT SELECT user_id, status, count "
+            + "FROM task_count_by_employee WHERE count <> 0)) + "
+            + "(SELECT COUNT(*) FROM (SELECT user_id, status, count FROM task_count_by_employee "
+            + "WHERE count <> 0 EXCEPT " + FRESH_BY_EMPLOYEE + "))";
+
+    private static ScheduledExecutorService scheduler;
+    private static ScheduledFuture<?> driftCheck;
+
+    private TaskCounters() {
+    }
+
+    // Recounts both tables from scratch; runs inside the caller's transaction
+    static void rebuild(Statement statement) throws SQLException {
+        statement.execute("DELETE FROM task_count_by_department");
+        statement.execute("DELETE FROM task_count_by_employee");
+        statement.execute("INSERT INTO task_count_by_department (department, status, count) " + FRESH_BY_DEPARTMENT);
+        statement.execute("INSERT INTO task_count_by_employee (user_id, status, count) " + FRESH_BY_EMPLOYEE);
+    }
+
+    // Number of counter rows that were wrong (0 if none), after rebuilding them; -1 on error.
+    // The comparison and the rebuild share one transaction, so no write slips in between.
+    public static int checkDrift() {
+        return QueryMetrics.time("checkTaskCounters", () -> {
+            try (Connection connection = Database.getConnection();
+                    Statement statement = connection.createStatement()) {
+                connection.setAutoCommit(false);
+                try {
+                    int drift;
+                    try (ResultSet resultSet = statement.executeQuery(DRIFT)) {
+                        resultSet.next();
+                        drift = resultSet.getInt(1);
+                    }
+                    if (drift > 0) {
+                        rebuild(statement);
+                        System.err.println("Task counters were off in " + drift + " rows; rebuilt them");
+                        Database.fireChange(DataChangeEvent.Entity.TASK, DataChangeEvent.Type.RELOADED, null, null);
+                    }
+                    connection.commit();
+                    return drift;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                Database.reportError("Error checking task counters", e);
+                return -1;
+            }
+        });
+    }
+
+    // Runs checkDrift every periodMinutes on a daemon thread, replacing any earlier schedule
+    public static synchronized void scheduleDriftCheck(long periodMinutes) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "task-counter-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (driftCheck != null) {
+            driftCheck.cancel(false);
+        }
+        driftCheck = scheduler.scheduleWithFixedDelay(TaskCounters::checkDrift, periodMinutes, periodMinutes,
+                TimeUnit.MINUTES);
+    }
+
+    public static synchronized void cancelDriftCheck() {
+        if (driftCheck != null) {
+            driftCheck.cancel(false);
+            driftCheck = null;
+        }
+    }
+}
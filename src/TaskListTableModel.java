@@ -0,0 +1,106 @@
+package src;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+// One section of the employee dashboard (Manager, Accepted or Incoming tasks). The
+// action column returns the Task itself so a shared TaskActionsCell can draw its buttons.
+public class TaskListTableModel extends AbstractTableModel {
+    public enum Column {
+        TITLE("Title"), ASSIGNED_BY("Assigned By"), ASSIGNED_TO("Assigned To"), ACTIONS("");
+
+        private final String label;
+
+        Column(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Column[] columns;
+    private final String username;
+    private final List<Task> tasks = new ArrayList<>();
+
+    public TaskListTableModel(String username, Column... columns) {
+        this.username = username;
+        this.columns = columns;
+    }
+
+    public void setTasks(List<Task> newTasks) {
+        tasks.clear();
+        tasks.addAll(newTasks);
+        fireTableDataChanged();
+    }
+
+    public void addTask(Task task) {
+        tasks.add(task);
+        fireTableRowsInserted(tasks.size() - 1, tasks.size() - 1);
+    }
+
+    public void removeTask(Task task) {
+        int row = tasks.indexOf(task);
+        if (row >= 0) {
+            tasks.remove(row);
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    public void taskChanged(Task task) {
+        int row = tasks.indexOf(task);
+        if (row >= 0) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    public Task getTask(int row) {
+        return tasks.get(row);
+    }
+
+    public int actionColumn() {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == Column.ACTIONS) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return tasks.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].label;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        // "Editing" the action cell is how its buttons receive clicks
+        return columns[column] == Column.ACTIONS;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Task task = tasks.get(row);
+        switch (columns[column]) {
+            case TITLE:
+                return task.getTitle();
+            case ASSIGNED_BY:
+                // No manager once theirs has been deleted or off-boarded
+                String manager = task.getManager();
+                return manager == null ? "" : username.equals(manager) ? "HR" : manager;
+            case ASSIGNED_TO:
+                String assignedTo = task.getAssignedTo();
+                return assignedTo == null || assignedTo.isBlank() ? "N/A" : assignedTo;
+            default:
+                return task;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package src;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Tasks. Implemented by SqliteTaskRepository (the real database) and InMemoryTaskRepository;
+// Repositories.tasks() returns the one chosen at startup. Every change fires a TASK
+// DataChangeEvent through Database's listeners. Usernames are matched ignoring case.
+public interface TaskRepository {
+    // Sets the new task's id on success
+    boolean createTaskDB(Task task);
+
+    // Only moves the task if TaskStatus allows it from the stored status; CONFLICT if not
+    UpdateResult updateTaskStatus(int taskId, TaskStatus newStatus);
+
+    // Only writes if the stored row still has task.getVersion(); on UPDATED the version is bumped.
+    // CONFLICT means someone else saved first: reload with getTask, merge and try again.
+    UpdateResult updateTask(Task task);
+
+    boolean deleteTask(int taskId);
+
+    // Status changes and deletes from busy screens: queued and committed in groups where the
+    // engine supports it. The future completes with true once the change is committed, and with
+    // false if the task is gone or can no longer make the status move.
+    CompletableFuture<Boolean> queueStatusChange(int taskId, TaskStatus newStatus);
+
+    CompletableFuture<Boolean> queueDelete(int taskId);
+
+    // The task with its current version, or null if it has been deleted
+    Task getTask(int taskId);
+
+    List<Task> getEmployeeTasks(String username);
+
+    List<Task> getManagerTasks(String username);
+
+    EmployeeDashboard getEmployeeDashboard(String username);
+
+    int countTasksWithStatus(TaskStatus status);
+
+    // Counts per department and per employee by status, without scanning the tasks
+    TaskSummary getTaskSummary();
+
+    // task_id, title, description, status, assigned_to, manager of every task
+    Object[][] getAllTasks();
+
+    // Keyset pagination over the same rows, ordered by task_id
+    List<Integer> getTaskPageKeys(int pageSize);
+
+    Object[][] getTaskPage(int fromTaskId, int limit);
+
+    Object[] getTaskRow(int taskId);
+
+    int countTasks();
+
+    // Ranked search over title, description and feedback; every word matches as a prefix
+    Object[][] searchTasks(String query, int limit, int offset);
+}
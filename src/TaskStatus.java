@@ -0,0 +1,88 @@
+package src;
+
+// A task's status, stored in task.status as its small integer code (schema migration 5).
+//
+// Legal moves: Assigned -> Accepted or Rejected, Accepted -> Completed, Rejected -> Assigned
+// (handed out again). Completed is final. The database enforces this in the UPDATE itself,
+// so two people clicking at once cannot both win with incompatible changes.
+public enum TaskStatus {
+    ASSIGNED(0, "Assigned"),
+    ACCEPTED(1, "Accepted"),
+    REJECTED(2, "Rejected"),
+    COMPLETED(3, "Completed");
+
+    private static final TaskStatus[] BY_CODE = values();
+
+    private final int code;
+    private final String label;
+
+    TaskStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean canMoveTo(TaskStatus next) {
+        switch (this) {
+            case ASSIGNED:
+                return next == ACCEPTED || next == REJECTED;
+            case ACCEPTED:
+                return next == COMPLETED;
+            case REJECTED:
+                return next == ASSIGNED;
+            default:
+                return false;
+        }
+    }
+
+    // Bit `code` is set for every status that may move to this one; SQL tests it with
+    // (mask >> status) & 1
+    public int getAllowedFromMask() {
+        int mask = 0;
+        for (TaskStatus from : BY_CODE) {
+            if (from.canMoveTo(this)) {
+                mask |= 1 << from.code;
+            }
+        }
+        return mask;
+    }
+
+    public static TaskStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown task status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    // Accepts the label in any case, as used in CSV files and on the command line; null if unknown
+    public static TaskStatus fromLabel(String label) {
+        for (TaskStatus status : BY_CODE) {
+            if (status.label.equalsIgnoreCase(label)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    // SQL expression turning a status code column back into its label, for exports
+    public static String labelSql(String column) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (TaskStatus status : BY_CODE) {
+            sql.append(" WHEN ").append(status.code).append(" THEN '").append(status.label).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+
+    // Shown in tables and dialogs
+    @Override
+    public String toString() {
+        return label;
+    }
+}
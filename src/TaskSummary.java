@@ -0,0 +1,93 @@
+package src;
+
+import java.util.*;
+
+// Task counts per department and per employee, broken down by status, for the HR summary.
+// Tasks with no assignee, or whose assignee has no department, count under "".
+// The per-status arrays are indexed by TaskStatus code.
+public class TaskSummary {
+    private static final int STATUS_COUNT = TaskStatus.values().length;
+
+    private final Map<String, int[]> byDepartment = new TreeMap<>();
+    private final Map<String, int[]> byEmployee = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public void addDepartment(String department, TaskStatus status, int count) {
+        add(byDepartment, department == null ? "" : department, status, count);
+    }
+
+    public void addEmployee(String username, TaskStatus status, int count) {
+        add(byEmployee, username, status, count);
+    }
+
+    private static void add(Map<String, int[]> counts, String key, TaskStatus status, int count) {
+        if (count != 0) {
+            counts.computeIfAbsent(key, k -> new int[STATUS_COUNT])[status.getCode()] += count;
+        }
+    }
+
+    public int count(String department, TaskStatus status) {
+        int[] counts = byDepartment.get(department);
+        return counts == null ? 0 : counts[status.getCode()];
+    }
+
+    public int total(TaskStatus status) {
+        int total = 0;
+        for (int[] counts : byDepartment.values()) {
+            total += counts[status.getCode()];
+        }
+        return total;
+    }
+
+    public int total() {
+        int total = 0;
+        for (int[] counts : byDepartment.values()) {
+            total += sum(counts);
+        }
+        return total;
+    }
+
+    // department, one column per status, total; in department order
+    public Object[][] departmentRows() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : byDepartment.entrySet()) {
+            rows.add(row(entry.getKey().isEmpty() ? "(none)" : entry.getKey(), entry.getValue(), sum(entry.getValue())));
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    // username, one column per status, open (Assigned + Accepted); most open tasks first
+    public Object[][] employeeRows(int limit) {
+        List<Map.Entry<String, int[]>> entries = new ArrayList<>(byEmployee.entrySet());
+        entries.sort(Comparator.comparingInt((Map.Entry<String, int[]> entry) -> open(entry.getValue())).reversed());
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : entries) {
+            if (rows.size() == limit) {
+                break;
+            }
+            rows.add(row(entry.getKey(), entry.getValue(), open(entry.getValue())));
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    private static Object[] row(String key, int[] counts, int last) {
+        Object[] row = new Object[counts.length + 2];
+        row[0] = key;
+        for (int i = 0; i < counts.length; i++) {
+            row[i + 1] = counts[i];
+        }
+        row[counts.length + 1] = last;
+        return row;
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static int open(int[] counts) {
+        return counts[TaskStatus.ASSIGNED.getCode()] + counts[TaskStatus.ACCEPTED.getCode()];
+    }
+}
@@ -0,0 +1,42 @@
+package src;
+
+import java.util.List;
+
+// HR task grid, paged by task_id
+public class TaskTableModel extends PagedTableModel<Integer> {
+    private static final String[] COLUMNS = { "Task ID", "Title", "Description", "Status", "Assigned To",
+            "Manager" };
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    public TaskTableModel() {
+        super(DataChangeEvent.Entity.TASK, COLUMNS, PAGE_SIZE, MAX_CACHED_PAGES);
+    }
+
+    @Override
+    protected List<Integer> loadPageKeys(int pageSize) {
+        return Repositories.tasks().getTaskPageKeys(pageSize);
+    }
+
+    @Override
+    protected int loadRowCount() {
+        return Repositories.tasks().countTasks();
+    }
+
+    @Override
+    protected Object[][] loadPage(Integer fromKey, int limit) {
+        return Repositories.tasks().getTaskPage(fromKey, limit);
+    }
+
+    @Override
+    protected Object[] loadRow(Integer key) {
+        return Repositories.tasks().getTaskRow(key);
+    }
+
+    @Override
+    protected Object[] toRow(Object changed) {
+        Task task = (Task) changed;
+        return new Object[] { task.getTaskId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getAssignedTo(), task.getManager() };
+    }
+}
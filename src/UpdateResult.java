@@ -0,0 +1,7 @@
+package src;
+
+// Outcome of a compare-and-set update: the row is only written if its version is still the
+// one the caller read. CONFLICT means someone else saved it first; reload, merge and retry.
+public enum UpdateResult {
+    UPDATED, CONFLICT, NOT_FOUND, FAILED
+}
@@ -1,6 +1,16 @@
 package src;
 
+import java.util.Objects;
+
 public class User {
+    // Bits in getDirtyFields(), one per column updateEmployee can write
+    public static final int ROLE = 1 << 0;
+    public static final int FIRST_NAME = 1 << 1;
+    public static final int LAST_NAME = 1 << 2;
+    public static final int DEPARTMENT = 1 << 3;
+    public static final int JOB_TITLE = 1 << 4;
+    public static final int EMAIL = 1 << 5;
+
     private String username;
     private String password;
     private String role;
@@ -9,6 +19,10 @@ public class User {
     private String department;
     private String jobTitle;
     private String email;
+    // Bumped by every write; updateEmployee only succeeds if it still matches
+    private int version;
+    // Fields set to a new value since the object was loaded or last saved
+    private int dirtyFields;
 
     public User(String username, String password, String role, String firstName, String lastName, String department,
             String jobTitle, String email) {
@@ -22,6 +36,13 @@ public class User {
         this.email = email;
     }
 
+    public User(User other) {
+        this(other.username, other.password, other.role, other.firstName, other.lastName, other.department,
+                other.jobTitle, other.email);
+        this.version = other.version;
+        this.dirtyFields = other.dirtyFields;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -30,12 +51,19 @@ public class User {
         this.username = username;
     }
 
+    public String getPassword() {
+        return password;
+    }
+
     public String getRole() {
         return role;
     }
 
     public void setRole(String role) {
-        this.role = role;
+        if (!Objects.equals(this.role, role)) {
+            this.role = role;
+            dirtyFields |= ROLE;
+        }
     }
 
     public String getFirstName() {
@@ -43,7 +71,10 @@ public class User {
     }
 
     public void setFirstName(String firstName) {
-        this.firstName = firstName;
+        if (!Objects.equals(this.firstName, firstName)) {
+            this.firstName = firstName;
+            dirtyFields |= FIRST_NAME;
+        }
     }
 
     public String getLastName() {
@@ -51,7 +82,10 @@ public class User {
     }
 
     public void setLastName(String lastName) {
-        this.lastName = lastName;
+        if (!Objects.equals(this.lastName, lastName)) {
+            this.lastName = lastName;
+            dirtyFields |= LAST_NAME;
+        }
     }
 
     public String getDepartment() {
@@ -59,7 +93,10 @@ public class User {
     }
 
     public void setDepartment(String department) {
-        this.department = department;
+        if (!Objects.equals(this.department, department)) {
+            this.department = department;
+            dirtyFields |= DEPARTMENT;
+        }
     }
 
     public String getJobTitle() {
@@ -67,7 +104,10 @@ public class User {
     }
 
     public void setJobTitle(String jobTitle) {
-        this.jobTitle = jobTitle;
+        if (!Objects.equals(this.jobTitle, jobTitle)) {
+            this.jobTitle = jobTitle;
+            dirtyFields |= JOB_TITLE;
+        }
     }
 
     public String getEmail() {
@@ -75,7 +115,31 @@ public class User {
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        if (!Objects.equals(this.email, email)) {
+            this.email = email;
+            dirtyFields |= EMAIL;
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    public boolean isDirty() {
+        return dirtyFields != 0;
+    }
+
+    // Called once the changes are saved
+    public void markClean() {
+        dirtyFields = 0;
     }
 
     public String toString() {
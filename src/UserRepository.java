@@ -0,0 +1,40 @@
+package src;
+
+import java.util.List;
+
+// User accounts. Implemented by SqliteUserRepository (the real database) and
+// InMemoryUserRepository; Repositories.users() returns the one chosen at startup.
+// Every change fires a USER DataChangeEvent through Database's listeners. Usernames are
+// matched ignoring case; users come back with the username as it was signed up.
+public interface UserRepository {
+    // False if the username (ignoring case) or email is already taken
+    boolean addUser(String username, String password, String role, String firstName, String lastName,
+            String department, String jobTitle, String email);
+
+    boolean deleteUser(String username);
+
+    // The user if the password matches, otherwise null. Callers get their own copy.
+    User getUser(String username, String password);
+
+    // The user without checking a password, for HR screens, or null
+    User getUserHR(String username);
+
+    // Only writes if the stored row still has user.getVersion(); on UPDATED the version is bumped.
+    // CONFLICT means someone else saved first: reload with getUserHR, merge and try again.
+    UpdateResult updateEmployee(User user);
+
+    // Usernames of everyone who is not HR
+    List<String> getEmployeeUsernames();
+
+    // username, first_name, last_name, email, role, department, job_title of everyone who is not HR
+    Object[][] getAllEmployees();
+
+    // Keyset pagination over the same rows, ordered by username
+    List<String> getEmployeePageKeys(int pageSize);
+
+    Object[][] getEmployeePage(String fromUsername, int limit);
+
+    Object[] getEmployeeRow(String username);
+
+    int countEmployees();
+}